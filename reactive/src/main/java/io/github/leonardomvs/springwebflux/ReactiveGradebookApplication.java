@@ -0,0 +1,13 @@
+package io.github.leonardomvs.springwebflux;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveGradebookApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveGradebookApplication.class, args);
+	}
+
+}
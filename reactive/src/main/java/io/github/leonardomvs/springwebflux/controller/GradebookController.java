@@ -0,0 +1,82 @@
+package io.github.leonardomvs.springwebflux.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.github.leonardomvs.springwebflux.models.GradeForm;
+import io.github.leonardomvs.springwebflux.models.Student;
+import io.github.leonardomvs.springwebflux.models.StudentInformation;
+import io.github.leonardomvs.springwebflux.service.GradebookService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// The servlet GradebookController's operations as JSON, a missing student or grade is a 404
+@RestController
+public class GradebookController {
+
+	@Autowired
+	private GradebookService studentAndGradeService;
+
+	@GetMapping("/students")
+	public Flux<Student> getStudents() {
+		return studentAndGradeService.getGradeBook();
+	}
+
+	@PostMapping("/students")
+	@ResponseStatus(HttpStatus.CREATED)
+	public Mono<Student> createStudent(@RequestBody Student student) {
+		return studentAndGradeService.createStudent(student.getFirstname(), student.getLastname(),
+				student.getEmailAddress());
+	}
+
+	@DeleteMapping("/students/{id}")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public Mono<Void> deleteStudent(@PathVariable int id) {
+		return studentAndGradeService.deleteStudent(id)
+				.flatMap(deleted -> deleted ? Mono.<Void>empty() : Mono.error(notFound()));
+	}
+
+	@GetMapping("/students/{id}")
+	public Mono<StudentInformation> studentInformation(@PathVariable int id) {
+		return studentAndGradeService.studentInformation(id).switchIfEmpty(Mono.error(notFound()));
+	}
+
+	// the form of the servlet application, @RequestParam would only see the query string in WebFlux,
+	// emits the student's information with the new grade
+	@PostMapping("/grades")
+	@ResponseStatus(HttpStatus.CREATED)
+	public Mono<StudentInformation> createGrade(@ModelAttribute GradeForm form) {
+
+		if(form.getGrade() == null || form.getStudentId() == null
+				|| !studentAndGradeService.isValidGrade(form.getGrade(), form.getGradeType())) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST));
+		}
+
+		int studentId = form.getStudentId();
+
+		return studentAndGradeService.createGrade(form.getGrade(), studentId, form.getGradeType())
+				.flatMap(created -> created ? studentAndGradeService.studentInformation(studentId) : Mono.empty())
+				.switchIfEmpty(Mono.error(notFound()));
+	}
+
+	@DeleteMapping("/grades/{id}/{gradeType}")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public Mono<Void> deleteGrade(@PathVariable int id, @PathVariable String gradeType) {
+		return studentAndGradeService.deleteGrade(id, gradeType)
+				.flatMap(studentId -> studentId != 0 ? Mono.<Void>empty() : Mono.error(notFound()));
+	}
+
+	private static ResponseStatusException notFound() {
+		return new ResponseStatusException(HttpStatus.NOT_FOUND);
+	}
+
+}
@@ -0,0 +1,48 @@
+package io.github.leonardomvs.springwebflux.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+
+// The columns every subject table has, the subclasses name the table
+public abstract class Grade {
+
+    @Id
+    private Integer id;
+
+    @Column("student_id")
+    private int studentId;
+
+    private double grade;
+
+    protected Grade() {
+
+    }
+
+    protected Grade(double grade) {
+        this.grade = grade;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public double getGrade() {
+        return grade;
+    }
+
+    public void setGrade(double grade) {
+        this.grade = grade;
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.leonardomvs.springwebflux.models;
+
+// The form fields of a new grade, null when the field was not posted
+public class GradeForm {
+
+    private Double grade;
+
+    private String gradeType;
+
+    private Integer studentId;
+
+    public Double getGrade() {
+        return grade;
+    }
+
+    public void setGrade(Double grade) {
+        this.grade = grade;
+    }
+
+    public String getGradeType() {
+        return gradeType;
+    }
+
+    public void setGradeType(String gradeType) {
+        this.gradeType = gradeType;
+    }
+
+    public Integer getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Integer studentId) {
+        this.studentId = studentId;
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.leonardomvs.springwebflux.models;
+
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("history_grade")
+public class HistoryGrade extends Grade {
+
+    public HistoryGrade() {
+
+    }
+
+    public HistoryGrade(double grade) {
+        super(grade);
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.leonardomvs.springwebflux.models;
+
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("math_grade")
+public class MathGrade extends Grade {
+
+    public MathGrade() {
+
+    }
+
+    public MathGrade(double grade) {
+        super(grade);
+    }
+}
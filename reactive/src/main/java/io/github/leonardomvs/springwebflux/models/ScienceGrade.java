@@ -0,0 +1,15 @@
+package io.github.leonardomvs.springwebflux.models;
+
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("science_grade")
+public class ScienceGrade extends Grade {
+
+    public ScienceGrade() {
+
+    }
+
+    public ScienceGrade(double grade) {
+        super(grade);
+    }
+}
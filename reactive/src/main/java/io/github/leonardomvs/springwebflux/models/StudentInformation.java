@@ -0,0 +1,65 @@
+package io.github.leonardomvs.springwebflux.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+// A student with the grades and averages of every subject, the averages are null without grades
+public class StudentInformation {
+
+    private final Student student;
+
+    private final List<? extends Grade> mathGrades;
+
+    private final List<? extends Grade> scienceGrades;
+
+    private final List<? extends Grade> historyGrades;
+
+    public StudentInformation(Student student, List<? extends Grade> mathGrades,
+                              List<? extends Grade> scienceGrades, List<? extends Grade> historyGrades) {
+        this.student = student;
+        this.mathGrades = mathGrades;
+        this.scienceGrades = scienceGrades;
+        this.historyGrades = historyGrades;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public List<? extends Grade> getMathGrades() {
+        return mathGrades;
+    }
+
+    public List<? extends Grade> getScienceGrades() {
+        return scienceGrades;
+    }
+
+    public List<? extends Grade> getHistoryGrades() {
+        return historyGrades;
+    }
+
+    public Double getMathAverage() {
+        return average(mathGrades);
+    }
+
+    public Double getScienceAverage() {
+        return average(scienceGrades);
+    }
+
+    public Double getHistoryAverage() {
+        return average(historyGrades);
+    }
+
+    // rounded like StudentGrades in the servlet application
+    private static Double average(List<? extends Grade> grades) {
+        if (grades.isEmpty()) {
+            return null;
+        }
+        double sum = 0;
+        for (Grade grade : grades) {
+            sum += grade.getGrade();
+        }
+        return BigDecimal.valueOf(sum / grades.size()).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.leonardomvs.springwebflux.repository;
+
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import io.github.leonardomvs.springwebflux.models.Grade;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// What every subject repository offers, so the service can pick one by grade type
+@NoRepositoryBean
+public interface GradeRepository<G extends Grade> extends ReactiveCrudRepository<G, Integer> {
+
+	public Flux<G> findByStudentIdOrderById(int studentId);
+
+	public Mono<Integer> deleteByStudentId(int studentId);
+
+}
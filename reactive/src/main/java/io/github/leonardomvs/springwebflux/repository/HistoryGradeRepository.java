@@ -0,0 +1,18 @@
+package io.github.leonardomvs.springwebflux.repository;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import io.github.leonardomvs.springwebflux.models.HistoryGrade;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface HistoryGradeRepository extends GradeRepository<HistoryGrade> {
+
+	@Override
+	@Modifying
+	@Query("DELETE FROM history_grade WHERE student_id = :studentId")
+	public Mono<Integer> deleteByStudentId(int studentId);
+
+}
@@ -0,0 +1,18 @@
+package io.github.leonardomvs.springwebflux.repository;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import io.github.leonardomvs.springwebflux.models.MathGrade;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface MathGradeRepository extends GradeRepository<MathGrade> {
+
+	@Override
+	@Modifying
+	@Query("DELETE FROM math_grade WHERE student_id = :studentId")
+	public Mono<Integer> deleteByStudentId(int studentId);
+
+}
@@ -0,0 +1,18 @@
+package io.github.leonardomvs.springwebflux.repository;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import io.github.leonardomvs.springwebflux.models.ScienceGrade;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ScienceGradeRepository extends GradeRepository<ScienceGrade> {
+
+	@Override
+	@Modifying
+	@Query("DELETE FROM science_grade WHERE student_id = :studentId")
+	public Mono<Integer> deleteByStudentId(int studentId);
+
+}
@@ -0,0 +1,19 @@
+package io.github.leonardomvs.springwebflux.repository;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+import io.github.leonardomvs.springwebflux.models.Student;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface StudentRepository extends ReactiveCrudRepository<Student, Integer> {
+
+	// changes whenever the student's grades do, like in the servlet application, emits 0 for an unknown id
+	@Modifying
+	@Query("UPDATE student SET version = version + 1 WHERE id = :id")
+	public Mono<Integer> incrementVersion(int id);
+
+}
@@ -0,0 +1,142 @@
+package io.github.leonardomvs.springwebflux.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleFunction;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.leonardomvs.springwebflux.models.Grade;
+import io.github.leonardomvs.springwebflux.models.HistoryGrade;
+import io.github.leonardomvs.springwebflux.models.MathGrade;
+import io.github.leonardomvs.springwebflux.models.ScienceGrade;
+import io.github.leonardomvs.springwebflux.models.Student;
+import io.github.leonardomvs.springwebflux.models.StudentInformation;
+import io.github.leonardomvs.springwebflux.repository.GradeRepository;
+import io.github.leonardomvs.springwebflux.repository.HistoryGradeRepository;
+import io.github.leonardomvs.springwebflux.repository.MathGradeRepository;
+import io.github.leonardomvs.springwebflux.repository.ScienceGradeRepository;
+import io.github.leonardomvs.springwebflux.repository.StudentRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * The operations of the servlet application's StudentAndGradeService without
+ * blocking a thread on the database. There are no running statistics or caches
+ * to keep in step here, so the tables must be this module's own: an in-memory
+ * H2 database, or the gradebook_reactive schema with the postgres profile.
+ */
+@Service
+public class GradebookService {
+
+	@Autowired
+	StudentRepository studentRepository;
+
+	@Autowired
+	MathGradeRepository mathGradeRepository;
+
+	@Autowired
+	ScienceGradeRepository scienceGradeRepository;
+
+	@Autowired
+	HistoryGradeRepository historyGradeRepository;
+
+	private final Map<String, Subject<?>> subjects = new LinkedHashMap<>();
+
+	@PostConstruct
+	void registerSubjects() {
+		subjects.put("math", new Subject<>(mathGradeRepository, MathGrade::new));
+		subjects.put("science", new Subject<>(scienceGradeRepository, ScienceGrade::new));
+		subjects.put("history", new Subject<>(historyGradeRepository, HistoryGrade::new));
+	}
+
+	public Flux<Student> getGradeBook() {
+		return studentRepository.findAll();
+	}
+
+	public Mono<Student> createStudent(String firstName, String lastName, String emailAddress) {
+		return studentRepository.save(new Student(firstName, lastName, emailAddress));
+	}
+
+	// emits false when there is no student with that id
+	@Transactional
+	public Mono<Boolean> deleteStudent(int id) {
+		return studentRepository.existsById(id).flatMap(exists -> {
+
+			if(!exists) { return Mono.just(false); }
+
+			return Flux.fromIterable(subjects.values())
+					.concatMap(subject -> subject.repository.deleteByStudentId(id))
+					.then(studentRepository.deleteById(id))
+					.thenReturn(true);
+		});
+	}
+
+	// empty when there is no student with that id, the subject tables are read at the same time
+	public Mono<StudentInformation> studentInformation(int id) {
+		return studentRepository.findById(id).flatMap(student -> Mono.zip(
+				mathGradeRepository.findByStudentIdOrderById(id).collectList(),
+				scienceGradeRepository.findByStudentIdOrderById(id).collectList(),
+				historyGradeRepository.findByStudentIdOrderById(id).collectList())
+				.map(grades -> new StudentInformation(student, grades.getT1(), grades.getT2(), grades.getT3())));
+	}
+
+	// emits false when the grade is rejected or there is no student with that id
+	@Transactional
+	public Mono<Boolean> createGrade(double grade, int studentId, String gradeType) {
+
+		if(!isValidGrade(grade, gradeType)) { return Mono.just(false); }
+
+		Subject<?> subject = subjects.get(gradeType);
+
+		return studentRepository.incrementVersion(studentId).flatMap(updated -> updated > 0
+				? subject.save(studentId, grade).thenReturn(true)
+				: Mono.just(false));
+	}
+
+	public boolean isValidGrade(double grade, String gradeType) {
+
+		// written this way round so NaN is rejected too
+		if(!(grade >= 0 && grade <= 100)) { return false; }
+
+		return subjects.containsKey(gradeType);
+	}
+
+	// emits the id of the student the grade belonged to, 0 when there was no such grade
+	@Transactional
+	public Mono<Integer> deleteGrade(int id, String gradeType) {
+
+		Subject<?> subject = subjects.get(gradeType);
+
+		if(subject == null) { return Mono.just(0); }
+
+		return subject.repository.findById(id)
+				.flatMap(grade -> studentRepository.incrementVersion(grade.getStudentId())
+						.then(subject.repository.deleteById(id))
+						.thenReturn(grade.getStudentId()))
+				.defaultIfEmpty(0);
+	}
+
+	private static final class Subject<G extends Grade> {
+
+		private final GradeRepository<G> repository;
+
+		private final DoubleFunction<G> factory;
+
+		private Subject(GradeRepository<G> repository, DoubleFunction<G> factory) {
+			this.repository = repository;
+			this.factory = factory;
+		}
+
+		private Mono<G> save(int studentId, double grade) {
+			G newGrade = factory.apply(grade);
+			newGrade.setStudentId(studentId);
+			return repository.save(newGrade);
+		}
+	}
+
+}
@@ -0,0 +1,2 @@
+-- The tables of schema.sql are created in here, see application-postgres.properties
+CREATE SCHEMA IF NOT EXISTS gradebook_reactive;
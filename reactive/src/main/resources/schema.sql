@@ -0,0 +1,29 @@
+CREATE TABLE IF NOT EXISTS student (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    firstname VARCHAR(255),
+    lastname VARCHAR(255),
+    email_address VARCHAR(255) UNIQUE,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS math_grade (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id INTEGER NOT NULL,
+    grade DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS science_grade (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id INTEGER NOT NULL,
+    grade DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS history_grade (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id INTEGER NOT NULL,
+    grade DOUBLE PRECISION NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS math_grade_student_id_idx ON math_grade (student_id);
+CREATE INDEX IF NOT EXISTS science_grade_student_id_idx ON science_grade (student_id);
+CREATE INDEX IF NOT EXISTS history_grade_student_id_idx ON history_grade (student_id);
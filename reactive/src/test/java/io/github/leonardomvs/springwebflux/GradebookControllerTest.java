@@ -0,0 +1,167 @@
+package io.github.leonardomvs.springwebflux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import io.github.leonardomvs.springwebflux.models.Student;
+import reactor.core.publisher.Flux;
+
+@AutoConfigureWebTestClient
+@SpringBootTest
+public class GradebookControllerTest {
+
+	@Autowired
+	WebTestClient webTestClient;
+
+	@Autowired
+	DatabaseClient databaseClient;
+
+	@BeforeEach
+	public void setupDatabase() {
+		execute("insert into student(id, firstname, lastname, email_address) "
+				+ "values (1, 'Eric', 'Roby', 'eric.roby@luv2code_school.com')",
+				"insert into math_grade(id, student_id, grade) values (1, 1, 100.00)",
+				"insert into science_grade(id, student_id, grade) values (1, 1, 100.00)",
+				"insert into history_grade(id, student_id, grade) values (1, 1, 100.00)");
+	}
+
+	@Test
+	public void getStudents() {
+
+		webTestClient.get().uri("/students").exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.length()").isEqualTo(1)
+				.jsonPath("$[0].emailAddress").isEqualTo("eric.roby@luv2code_school.com");
+
+	}
+
+	@Test
+	public void createStudent() {
+
+		webTestClient.post().uri("/students")
+				.bodyValue(new Student("Chad", "Darby", "chad.darby@luv2code_school.com"))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody()
+				.jsonPath("$.id").isNumber()
+				.jsonPath("$.firstname").isEqualTo("Chad");
+
+		webTestClient.get().uri("/students").exchange()
+				.expectBody().jsonPath("$.length()").isEqualTo(2);
+
+	}
+
+	@Test
+	public void studentInformation() {
+
+		webTestClient.get().uri("/students/1").exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.student.firstname").isEqualTo("Eric")
+				.jsonPath("$.mathGrades.length()").isEqualTo(1)
+				.jsonPath("$.mathAverage").isEqualTo(100.0)
+				.jsonPath("$.historyGrades[0].grade").isEqualTo(100.0);
+
+		webTestClient.get().uri("/students/0").exchange()
+				.expectStatus().isNotFound();
+
+	}
+
+	@Test
+	public void createValidGrade() {
+
+		webTestClient.post().uri("/grades")
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.body(BodyInserters.fromFormData("grade", "85.00").with("gradeType", "math").with("studentId", "1"))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody()
+				.jsonPath("$.mathGrades.length()").isEqualTo(2)
+				.jsonPath("$.mathAverage").isEqualTo(92.5);
+
+	}
+
+	@Test
+	public void createInvalidGrades() {
+
+		webTestClient.post().uri("/grades")
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.body(BodyInserters.fromFormData("grade", "105").with("gradeType", "math").with("studentId", "1"))
+				.exchange()
+				.expectStatus().isBadRequest();
+
+		webTestClient.post().uri("/grades")
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.body(BodyInserters.fromFormData("grade", "85.00").with("gradeType", "literature").with("studentId", "1"))
+				.exchange()
+				.expectStatus().isBadRequest();
+
+		webTestClient.post().uri("/grades")
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.body(BodyInserters.fromFormData("grade", "85.00").with("gradeType", "math").with("studentId", "0"))
+				.exchange()
+				.expectStatus().isNotFound();
+
+	}
+
+	@Test
+	public void deleteGrade() {
+
+		webTestClient.delete().uri("/grades/1/math").exchange()
+				.expectStatus().isNoContent();
+
+		webTestClient.delete().uri("/grades/1/math").exchange()
+				.expectStatus().isNotFound();
+
+		webTestClient.get().uri("/students/1").exchange()
+				.expectBody()
+				.jsonPath("$.mathGrades.length()").isEqualTo(0)
+				.jsonPath("$.mathAverage").doesNotExist()
+				.jsonPath("$.scienceGrades.length()").isEqualTo(1);
+
+	}
+
+	@Test
+	public void deleteStudentWithGrades() {
+
+		webTestClient.delete().uri("/students/1").exchange()
+				.expectStatus().isNoContent();
+
+		webTestClient.get().uri("/students/1").exchange()
+				.expectStatus().isNotFound();
+
+		webTestClient.delete().uri("/students/1").exchange()
+				.expectStatus().isNotFound();
+
+		assertEquals(0L, databaseClient.sql("select count(*) from math_grade")
+				.map(row -> row.get(0, Long.class)).one().block());
+
+		webTestClient.get().uri("/students").exchange()
+				.expectBody().jsonPath("$.length()").isEqualTo(0);
+
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		execute("DELETE FROM student", "DELETE FROM math_grade", "DELETE FROM science_grade",
+				"DELETE FROM history_grade");
+	}
+
+	private void execute(String... statements) {
+		Flux.fromArray(statements)
+				.concatMap(statement -> databaseClient.sql(statement).fetch().rowsUpdated())
+				.blockLast();
+	}
+
+}
@@ -0,0 +1,129 @@
+package io.github.leonardomvs.springmvc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.github.leonardomvs.springmvc.monitoring.SqlStatementListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/*
+ * Blocking requests on Tomcat's default 200 platform threads against one virtual
+ * thread per request. Every request runs three statements through a Hikari pool
+ * whose statements are slowed down by the SQL monitoring's injected latency, like
+ * a database a few milliseconds away. The virtual runs need a JDK 21.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+@State(Scope.Benchmark)
+public class ThreadModelBenchmark {
+
+	// server.tomcat.threads.max default
+	private static final int PLATFORM_THREADS = 200;
+
+	private static final int STATEMENTS_PER_REQUEST = 3;
+
+	@Param({ "platform", "virtual" })
+	private String threads;
+
+	// requests in flight at the same time
+	@Param({ "1000" })
+	private int requests;
+
+	@Param({ "10", "200", "1000" })
+	private int poolSize;
+
+	@Param({ "5" })
+	private long latencyMillis;
+
+	private HikariDataSource pool;
+
+	private DataSource dataSource;
+
+	private ExecutorService executor;
+
+	@Setup
+	public void setup() {
+
+		pool = new HikariDataSource();
+		pool.setJdbcUrl("jdbc:h2:mem:threadModel;DB_CLOSE_DELAY=-1");
+		pool.setUsername("sa");
+		pool.setMaximumPoolSize(poolSize);
+		pool.setConnectionTimeout(TimeUnit.MINUTES.toMillis(5));
+
+		dataSource = ProxyDataSourceBuilder.create(pool)
+				.name("threadModel")
+				.listener(new SqlStatementListener(Long.MAX_VALUE, latencyMillis))
+				.build();
+
+		executor = threads.equals("virtual")
+				? VirtualThreads.newVirtualThreadPerTaskExecutor()
+				: Executors.newFixedThreadPool(PLATFORM_THREADS);
+	}
+
+	@Benchmark
+	public int serveRequests() throws Exception {
+
+		List<Future<Integer>> responses = new ArrayList<>(requests);
+
+		for(int i = 0; i < requests; i++) {
+			responses.add(executor.submit(this::handleRequest));
+		}
+
+		int rows = 0;
+		for(Future<Integer> response : responses) {
+			rows += response.get();
+		}
+		return rows;
+	}
+
+	private int handleRequest() throws Exception {
+
+		int rows = 0;
+
+		try(Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			for(int i = 0; i < STATEMENTS_PER_REQUEST; i++) {
+				try(ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+					while(resultSet.next()) {
+						rows++;
+					}
+				}
+			}
+		}
+
+		return rows;
+	}
+
+	@TearDown
+	public void tearDown() {
+		executor.shutdownNow();
+		pool.close();
+	}
+
+}
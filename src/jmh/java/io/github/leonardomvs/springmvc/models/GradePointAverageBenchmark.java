@@ -0,0 +1,77 @@
+package io.github.leonardomvs.springmvc.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * The average of one subject: summing the grade list and the BigDecimal rounding
+ * on top of it. divideWithoutRounding is the floor the rounding is compared with.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class GradePointAverageBenchmark {
+
+	@Param({ "10", "1000", "100000", "1000000" })
+	private int size;
+
+	private List<Grade> grades;
+
+	private StudentGrades studentGrades;
+
+	private double sum;
+
+	@Setup
+	public void setup() {
+
+		Random random = new Random(42);
+
+		grades = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			MathGrade grade = new MathGrade(random.nextInt(10001) / 100.0);
+			grade.setId(i);
+			grades.add(grade);
+		}
+
+		studentGrades = new StudentGrades();
+		sum = studentGrades.addGradeResultsForSingleClass(grades);
+	}
+
+	@Benchmark
+	public double addGradeResultsForSingleClass() {
+		return studentGrades.addGradeResultsForSingleClass(grades);
+	}
+
+	@Benchmark
+	public double findGradePointAverage() {
+		return studentGrades.findGradePointAverage(grades);
+	}
+
+	@Benchmark
+	public double roundGradePointAverage() {
+		return StudentGrades.roundGradePointAverage(sum, size);
+	}
+
+	@Benchmark
+	public double divideWithoutRounding() {
+		return sum / size;
+	}
+
+}
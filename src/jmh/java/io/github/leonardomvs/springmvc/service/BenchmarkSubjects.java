@@ -0,0 +1,19 @@
+package io.github.leonardomvs.springmvc.service;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+// The registry the application starts with, without a Spring context
+final class BenchmarkSubjects {
+
+	private BenchmarkSubjects() {}
+
+	// the repositories are never called by the benchmarks
+	static GradeSubjectRegistry builtInSubjects() {
+		GradeSubjectRegistry registry = new GradeSubjectRegistry();
+		ReflectionTestUtils.setField(registry, "storage", "subject-tables");
+		ReflectionTestUtils.setField(registry, "extraSubjects", new String[0]);
+		registry.registerSubjects();
+		return registry;
+	}
+
+}
@@ -0,0 +1,60 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * How createGrade and deleteGrade find the subject of a grade type, against the
+ * String.equals chain they used before the subject registry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GradeDispatchBenchmark {
+
+	@Param({ "math", "history", "literature" })
+	private String gradeType;
+
+	private StudentAndGradeService studentService;
+
+	private GradeSubjectRegistry gradeSubjectRegistry;
+
+	private double grade = 85.5;
+
+	@Setup
+	public void setup() {
+		gradeSubjectRegistry = BenchmarkSubjects.builtInSubjects();
+		studentService = new StudentAndGradeService();
+		studentService.gradeSubjectRegistry = gradeSubjectRegistry;
+	}
+
+	@Benchmark
+	public Object validateGrade() {
+		return studentService.validateGrade(grade, gradeType);
+	}
+
+	@Benchmark
+	public Object findSubject() {
+		return gradeSubjectRegistry.find(gradeType);
+	}
+
+	@Benchmark
+	public boolean equalsChain() {
+		return gradeType.equals("math") || gradeType.equals("science") || gradeType.equals("history");
+	}
+
+}
@@ -0,0 +1,188 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import io.github.leonardomvs.springmvc.models.Grade;
+import io.github.leonardomvs.springmvc.models.GradebookCollegeStudent;
+import io.github.leonardomvs.springmvc.repository.GradeAggregateRow;
+import io.github.leonardomvs.springmvc.repository.StudentTranscriptRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/*
+ * studentInformation on a cache miss without the database: the transcript rows are
+ * turned into grade entities, the per-subject lists and the snapshot arrays.
+ * size is the number of grades of the student, spread over the three subjects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class StudentInformationBenchmark {
+
+	private static final String[] GRADE_TYPES = { "math", "science", "history" };
+
+	@Param({ "10", "1000", "100000", "1000000" })
+	private int size;
+
+	private StudentAndGradeService studentService;
+
+	@Setup
+	public void setup() {
+
+		Random random = new Random(42);
+
+		List<StudentTranscriptRow> transcript = new ArrayList<>(size);
+		for(int i = 0; i < size; i++) {
+			transcript.add(new TranscriptRow(GRADE_TYPES[i % GRADE_TYPES.length], i, random.nextInt(10001) / 100.0));
+		}
+
+		studentService = new StudentAndGradeService();
+		studentService.gradeSubjectRegistry = BenchmarkSubjects.builtInSubjects();
+		studentService.gradeStore = new TranscriptGradeStore(transcript);
+		studentService.gradebookMetrics = new GradebookMetrics(new SimpleMeterRegistry());
+		// nothing is cached, every call loads the student again
+		studentService.studentInformationCache = new StudentInformationCache(new NoOpCacheManager(),
+				studentService.gradeSubjectRegistry);
+	}
+
+	@Benchmark
+	public GradebookCollegeStudent studentInformation() {
+		return studentService.studentInformation(1);
+	}
+
+	private static final class TranscriptRow implements StudentTranscriptRow {
+
+		private final String gradeType;
+
+		private final Integer gradeId;
+
+		private final Double grade;
+
+		private TranscriptRow(String gradeType, Integer gradeId, Double grade) {
+			this.gradeType = gradeType;
+			this.gradeId = gradeId;
+			this.grade = grade;
+		}
+
+		@Override
+		public int getStudentId() {
+			return 1;
+		}
+
+		@Override
+		public String getFirstname() {
+			return "Eric";
+		}
+
+		@Override
+		public String getLastname() {
+			return "Roby";
+		}
+
+		@Override
+		public String getEmailAddress() {
+			return "eric.roby@luv2code_school.com";
+		}
+
+		@Override
+		public long getVersion() {
+			return 0;
+		}
+
+		@Override
+		public String getGradeType() {
+			return gradeType;
+		}
+
+		@Override
+		public Integer getGradeId() {
+			return gradeId;
+		}
+
+		@Override
+		public Double getGrade() {
+			return grade;
+		}
+	}
+
+	// Only answers findTranscript, the benchmark never writes
+	private static final class TranscriptGradeStore implements GradeStore {
+
+		private final List<StudentTranscriptRow> transcript;
+
+		private TranscriptGradeStore(List<StudentTranscriptRow> transcript) {
+			this.transcript = transcript;
+		}
+
+		@Override
+		public List<StudentTranscriptRow> findTranscript(int studentId) {
+			return transcript;
+		}
+
+		@Override
+		public Grade saveGrade(int studentId, String gradeType, double grade) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Grade findGrade(int id, String gradeType) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int deleteGrade(int id, String gradeType) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int deleteByStudentIds(Collection<Integer> studentIds) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void insertGrades(Map<String, List<Object[]>> gradesByType) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<GradeAggregateRow> findGradeAggregates(int studentId) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String gradebookQuery() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int rebuildStatistics(Collection<Integer> studentIds) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public int rebuildStatistics(int studentId) {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
@@ -1,51 +1,52 @@
 package io.github.leonardomvs.springmvc;
 
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Scope;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 import io.github.leonardomvs.springmvc.models.*;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableCaching
 public class MvcTestingExampleApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(MvcTestingExampleApplication.class, args);
 	}
 
+	// ETags on the pages the write endpoints redirect to, so a repeated GET can be answered with a 304
 	@Bean
-	@Scope(value = "prototype")
-	CollegeStudent getCollegeStudent() {
-		return new CollegeStudent();
-	}
-
-	@Bean
-	@Scope(value = "prototype")
-	Grade getMathGrade(double grade) {
-		return new MathGrade(grade);
+	FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+		FilterRegistrationBean<ShallowEtagHeaderFilter> registration = 
+				new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+		registration.addUrlPatterns("/", "/studentInformation/*");
+		return registration;
 	}
 
+	// times the service methods annotated with @Timed
 	@Bean
-	@Scope(value = "prototype")
-	@Qualifier("mathGrades")
-	MathGrade getGrade() {
-		return new MathGrade();
+	TimedAspect timedAspect(MeterRegistry meterRegistry) {
+		return new TimedAspect(meterRegistry);
 	}
 
 	@Bean
 	@Scope(value = "prototype")
-	@Qualifier("scienceGrades")
-	ScienceGrade getScienceGrade() {
-		return new ScienceGrade();
+	CollegeStudent getCollegeStudent() {
+		return new CollegeStudent();
 	}
 
 	@Bean
 	@Scope(value = "prototype")
-	@Qualifier("historyGrades")
-	HistoryGrade getHistoryGrade() {
-		return new HistoryGrade();
+	Grade getMathGrade(double grade) {
+		return new MathGrade(grade);
 	}
 
 }
@@ -0,0 +1,78 @@
+package io.github.leonardomvs.springmvc;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.github.leonardomvs.springmvc.monitoring.SqlRequestStatistics;
+
+/*
+ * gradebook.student-information.fetch=parallel reads the subject tables of the
+ * student detail page at the same time, on a bounded pool of query threads. The
+ * request thread keeps its own connection while it waits, so the queries take
+ * their connections from a second pool, one connection per query thread. Boot
+ * backs off from creating the main pool once there is another DataSource, so
+ * that one is declared here too, the way Boot declares it, and stays the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gradebook.student-information.fetch", havingValue = "parallel")
+public class ParallelFetchConfiguration {
+
+	public static final String GRADE_QUERY_EXECUTOR = "gradeQueryExecutor";
+
+	public static final String GRADE_QUERY_DATA_SOURCE = "gradeQueryDataSource";
+
+	@Value("${gradebook.student-information.parallel-threads:8}")
+	private int parallelThreads;
+
+	// when every query thread is busy and the queue is full the request thread runs the query itself
+	@Bean(name = GRADE_QUERY_EXECUTOR)
+	ThreadPoolTaskExecutor gradeQueryExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(parallelThreads);
+		executor.setMaxPoolSize(parallelThreads);
+		executor.setQueueCapacity(parallelThreads * 16);
+		executor.setThreadNamePrefix("grade-query-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		// the queries count towards the SQL statistics of the request waiting for them
+		executor.setTaskDecorator(SqlRequestStatistics::propagate);
+		return executor;
+	}
+
+	@Bean
+	@Primary
+	@ConfigurationProperties(prefix = "spring.datasource.hikari")
+	HikariDataSource dataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		if(StringUtils.hasText(properties.getName())) {
+			dataSource.setPoolName(properties.getName());
+		}
+		return dataSource;
+	}
+
+	// the spring.datasource.hikari.* settings apply here too, except for the size and name of the pool
+	@Bean(name = GRADE_QUERY_DATA_SOURCE)
+	HikariDataSource gradeQueryDataSource(DataSourceProperties properties, Environment environment) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+		dataSource.setPoolName("grade-query");
+		dataSource.setMaximumPoolSize(parallelThreads);
+		dataSource.setMinimumIdle(0);
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+}
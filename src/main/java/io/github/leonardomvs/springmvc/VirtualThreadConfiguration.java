@@ -0,0 +1,23 @@
+package io.github.leonardomvs.springmvc;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * gradebook.threads.virtual=true serves every request, and so the service and
+ * JPA calls it makes, on its own virtual thread instead of Tomcat's worker pool.
+ * Needs Java 21, startup fails on older runtimes. The connection pool still caps
+ * how many requests use the database at the same time.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gradebook.threads.virtual", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+	@Bean
+	TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+		return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newVirtualThreadPerTaskExecutor());
+	}
+
+}
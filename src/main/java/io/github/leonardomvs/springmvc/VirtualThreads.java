@@ -0,0 +1,66 @@
+package io.github.leonardomvs.springmvc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Virtual threads through reflection, the code is compiled for Java 17 and the
+ * methods only exist when running on Java 21.
+ */
+public final class VirtualThreads {
+
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+
+	private static final Method IS_VIRTUAL = findMethod(Thread.class, "isVirtual");
+
+	private VirtualThreads() {}
+
+	private static Method findMethod(Class<?> type, String name) {
+		try {
+			return type.getMethod(name);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	public static boolean isSupported() {
+		if(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) { return false; }
+		// Java 19 and 20 have the method but throw unless preview features are enabled
+		try {
+			newVirtualThreadPerTaskExecutor().shutdown();
+			return true;
+		} catch (IllegalStateException e) {
+			return false;
+		}
+	}
+
+	// a new virtual thread for every task
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+
+		if(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+			throw new IllegalStateException("Virtual threads need Java 21, running on " + Runtime.version());
+		}
+
+		try {
+			return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException("Virtual threads are not available on " + Runtime.version(), e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public static boolean isVirtual(Thread thread) {
+
+		if(IS_VIRTUAL == null) { return false; }
+
+		try {
+			return (Boolean) IS_VIRTUAL.invoke(thread);
+		} catch (InvocationTargetException | IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,160 @@
+package io.github.leonardomvs.springmvc.controller;
+
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.github.leonardomvs.springmvc.models.CollegeStudent;
+import io.github.leonardomvs.springmvc.models.GradebookAnalytics;
+import io.github.leonardomvs.springmvc.models.GradeRejection;
+import io.github.leonardomvs.springmvc.models.GradeRequest;
+import io.github.leonardomvs.springmvc.models.GradebookCollegeStudent;
+import io.github.leonardomvs.springmvc.models.StudentPage;
+import io.github.leonardomvs.springmvc.models.StudentRanking;
+import io.github.leonardomvs.springmvc.models.StudentTranscript;
+import io.github.leonardomvs.springmvc.service.GradeSubjectRegistry;
+import io.github.leonardomvs.springmvc.service.GradebookAnalyticsService;
+import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+import io.micrometer.core.annotation.Timed;
+
+/*
+ * The GradebookController operations as JSON. A transcript's ETag is the
+ * student's version, which every grade write bumps, so a client holding the
+ * current one gets a 304 straight from the student information cache.
+ */
+@RestController
+@RequestMapping("/api")
+@Timed(histogram = true)
+public class GradebookApiController {
+
+	@Autowired
+	private StudentAndGradeService studentService;
+
+	@Autowired
+	private GradeSubjectRegistry gradeSubjectRegistry;
+
+	@Autowired
+	private GradebookAnalyticsService gradebookAnalyticsService;
+
+	@GetMapping("/students")
+	public StudentPage getStudents(@RequestParam(value = "after", required = false) Integer after,
+								   @RequestParam(value = "before", required = false) Integer before,
+								   @RequestParam(value = "size", required = false) Integer size) {
+		return studentService.getGradeBookPage(after, before, size);
+	}
+
+	@PostMapping("/students")
+	public ResponseEntity<CollegeStudent> createStudent(@RequestBody CollegeStudent student) {
+
+		CollegeStudent created;
+
+		try {
+			created = studentService.createStudent(student.getFirstname(), student.getLastname(),
+					student.getEmailAddress());
+		} catch (DataIntegrityViolationException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "the email address already belongs to another student");
+		}
+
+		return ResponseEntity.created(URI.create("/api/students/" + created.getId())).body(created);
+	}
+
+	@DeleteMapping("/students/{id}")
+	public ResponseEntity<Void> deleteStudent(@PathVariable int id) {
+
+		if(!studentService.deleteStudent(id)) {
+			throw notFound();
+		}
+
+		return ResponseEntity.noContent().build();
+	}
+
+	@GetMapping("/students/{id}")
+	public StudentTranscript studentInformation(@PathVariable int id, WebRequest request) {
+
+		GradebookCollegeStudent studentEntity = studentService.findCachedStudentInformation(id);
+
+		if(studentEntity == null) {
+			studentEntity = studentService.studentInformation(id);
+		}
+
+		if(studentEntity == null) {
+			throw notFound();
+		}
+
+		// sets the ETag, and the 304 when If-None-Match holds it
+		if(request.checkNotModified(etag(studentEntity))) {
+			return null;
+		}
+
+		return StudentTranscript.of(studentEntity, gradeSubjectRegistry.names());
+	}
+
+	@PostMapping("/grades")
+	public ResponseEntity<Void> createGrade(@RequestBody GradeRequest grade) {
+
+		if(!studentService.createGrade(grade.getGrade(), grade.getStudentId(), grade.getGradeType())) {
+
+			GradeRejection rejection = studentService.validateGrade(grade.getGrade(), grade.getGradeType());
+
+			// a valid grade was rejected for an unknown student
+			if(rejection == null) {
+				throw notFound();
+			}
+
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, rejection.name());
+		}
+
+		return ResponseEntity.created(URI.create("/api/students/" + grade.getStudentId())).build();
+	}
+
+	@DeleteMapping("/grades/{id}/{gradeType}")
+	public ResponseEntity<Void> deleteGrade(@PathVariable int id,
+											@PathVariable String gradeType) {
+
+		if(studentService.deleteGrade(id, gradeType) == 0) {
+			throw notFound();
+		}
+
+		return ResponseEntity.noContent().build();
+	}
+
+	// reads the whole gradebook, see GradebookAnalyticsService
+	@GetMapping("/analytics")
+	public GradebookAnalytics analytics(@RequestParam(value = "top", defaultValue = "10") int top) {
+		return gradebookAnalyticsService.analyze(top);
+	}
+
+	@GetMapping("/analytics/students/{id}")
+	public StudentRanking studentRanking(@PathVariable int id) {
+
+		StudentRanking ranking = gradebookAnalyticsService.studentRanking(id);
+
+		if(ranking == null) {
+			throw notFound();
+		}
+
+		return ranking;
+	}
+
+	private static String etag(GradebookCollegeStudent student) {
+		return "\"" + student.getId() + "-" + student.getVersion() + "\"";
+	}
+
+	private static ResponseStatusException notFound() {
+		return new ResponseStatusException(HttpStatus.NOT_FOUND);
+	}
+
+}
@@ -1,6 +1,17 @@
 package io.github.leonardomvs.springmvc.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,58 +21,107 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import io.github.leonardomvs.springmvc.models.CollegeStudent;
+import io.github.leonardomvs.springmvc.models.GradeImportReport;
+import io.github.leonardomvs.springmvc.models.GradebookCollegeStudent;
+import io.github.leonardomvs.springmvc.models.StudentPage;
+import io.github.leonardomvs.springmvc.service.GradeImportService;
+import io.github.leonardomvs.springmvc.service.GradebookExportService;
 import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+import io.micrometer.core.annotation.Timed;
 
+// http.server.requests per endpoint, with histogram buckets so Prometheus can compute percentiles
 @Controller
+@Timed(histogram = true)
 public class GradebookController {
 	
 	@Autowired
 	private StudentAndGradeService studentService;
+	
+	@Autowired
+	private GradeImportService gradeImportService;
+	
+	@Autowired
+	private GradebookExportService gradebookExportService;
 
 	@RequestMapping(value = "/", method = RequestMethod.GET)
-	public String getStudents(Model m) {
-		Iterable<CollegeStudent> collegeStudents = studentService.getGradeBook();
-		m.addAttribute("students", collegeStudents);
+	public String getStudents(@RequestParam(value = "after", required = false) Integer after,
+							  @RequestParam(value = "before", required = false) Integer before,
+							  @RequestParam(value = "size", required = false) Integer size,
+							  Model m) {
+		addGradeBookPageToModel(studentService.getGradeBookPage(after, before, size), m);
 		return "index";
 	}
 	
 	@PostMapping(value = "/")
-	public String createStudent(@ModelAttribute("student") CollegeStudent student, Model m) {
-		
-		studentService.createStudent(student.getFirstname(), student.getLastname(), 
-				student.getEmailAddress());
+	public String createStudent(@ModelAttribute("student") CollegeStudent student) {
 		
-		Iterable<CollegeStudent> collegeStudents = studentService.getGradeBook();
-		m.addAttribute("students", collegeStudents);
+		try {
+			studentService.createStudent(student.getFirstname(), student.getLastname(), 
+					student.getEmailAddress());
+		} catch (DataIntegrityViolationException e) {
+			// the email address already belongs to another student
+			return "error";
+		}
 		
-		return "index";
+		return "redirect:/";
 	}
 	
 	@GetMapping("/delete/student/{id}")
-	public String deleteStudent(@PathVariable int id, Model m) {
+	public String deleteStudent(@PathVariable int id) {
 		
-		if(!studentService.checkIfStudentIsNotNull(id)) {
+		if(!studentService.deleteStudent(id)) {
 			return "error";
 		}
 		
-		studentService.deleteStudent(id);
+		return "redirect:/";
+	}
+
+	// Withdraws a whole cohort at once, e.g. ids=4&ids=5 or ids=4,5
+	@PostMapping("/delete/students")
+	public String deleteStudents(@RequestParam("ids") List<Integer> ids) {
 		
-		Iterable<CollegeStudent> collegeStudents = studentService.getGradeBook();
-		m.addAttribute("students", collegeStudents);
+		if(studentService.deleteStudents(ids) == 0) {
+			return "error";
+		}
 		
-		return "index";
+		return "redirect:/";
+	}
+	
+	// Written straight to the response, this path is kept out of the ETag filter so nothing buffers it
+	@GetMapping("/export")
+	public void exportGradebook(@RequestParam(value = "format", defaultValue = "csv") String format,
+								HttpServletResponse response) throws IOException {
+		
+		if(format.equals("csv")) {
+			response.setContentType("text/csv;charset=UTF-8");
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"gradebook.csv\"");
+			gradebookExportService.exportCsv(response.getWriter());
+			return;
+		}
+		
+		if(format.equals("json")) {
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"gradebook.json\"");
+			gradebookExportService.exportJson(response.getOutputStream());
+			return;
+		}
+		
+		response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown export format " + format);
 	}
 
 	@GetMapping("/studentInformation/{id}")
 	public String studentInformation(@PathVariable int id, Model m) {
 		
-		if(!studentService.checkIfStudentIsNotNull(id)) {
+		GradebookCollegeStudent studentEntity = studentService.studentInformation(id);
+		
+		if(studentEntity == null) {
 			return "error";
 		}
 		
-		studentService.configureStudentInformationModel(id, m);
+		studentService.configureStudentInformationModel(studentEntity, m);
 		
 		return "studentInformation";
 		
@@ -70,29 +130,34 @@ public class GradebookController {
 	@PostMapping(value = "/grades")
 	public String createGrade(@RequestParam("grade") double grade,
 							  @RequestParam("gradeType") String gradeType,
-							  @RequestParam("studentId") int studentId,
-							  Model m) {
-		
-		if(!studentService.checkIfStudentIsNotNull(studentId)) {
-			return "error";
-		}
+							  @RequestParam("studentId") int studentId) {
 		
+		// createGrade checks the student while taking its row lock
 		boolean success = studentService.createGrade(grade, studentId, gradeType);
 		
 		if(!success) {
 			return "error";
 		}
 		
-		studentService.configureStudentInformationModel(studentId, m);
-				
-		return "studentInformation";
+		return "redirect:/studentInformation/" + studentId;
 		
 	}
 	
+	@PostMapping(value = "/grades/import", consumes = "text/csv")
+	@ResponseBody
+	public GradeImportReport importGradesCsv(Reader body) throws IOException {
+		return gradeImportService.importCsv(body);
+	}
+	
+	@PostMapping(value = "/grades/import", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+	@ResponseBody
+	public GradeImportReport importGradesJson(InputStream body) throws IOException {
+		return gradeImportService.importJson(body);
+	}
+	
 	@GetMapping(value = "/grades/{id}/{gradeType}")
 	public String deleteGrade(@PathVariable int id, 
-							  @PathVariable String gradeType,
-							  Model m) {
+							  @PathVariable String gradeType) {
 		
 		int studentId = studentService.deleteGrade(id, gradeType);
 		
@@ -100,10 +165,13 @@ public class GradebookController {
 			return "error";
 		}
 		
-		studentService.configureStudentInformationModel(studentId, m);
-		
-		return "studentInformation";
+		return "redirect:/studentInformation/" + studentId;
 		
 	}
+	
+	private void addGradeBookPageToModel(StudentPage page, Model m) {
+		m.addAttribute("students", page.getStudents());
+		m.addAttribute("page", page);
+	}
 		
 }
\ No newline at end of file
@@ -2,8 +2,13 @@ package io.github.leonardomvs.springmvc.models;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 @Entity
-@Table(name = "student")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "student", uniqueConstraints = @UniqueConstraint(name = "student_email_address_key", columnNames = "email_address"))
 public class CollegeStudent implements Student {
     @Id
     @GeneratedValue(strategy= GenerationType.IDENTITY)
@@ -14,6 +19,9 @@ public class CollegeStudent implements Student {
     private String lastname;
     @Column(name="email_address")
     private String emailAddress;
+    // bumped in the database by StudentDao.incrementVersion, never written from the entity
+    @Column(insertable = false, updatable = false)
+    private long version;
 
     public CollegeStudent() {
 
@@ -58,6 +66,14 @@ public class CollegeStudent implements Student {
     }
 
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getFullName() {
         return getFirstname() + " " + getLastname();
     }
@@ -69,6 +85,7 @@ public class CollegeStudent implements Student {
                 ", firstname='" + firstname + '\'' +
                 ", lastname='" + lastname + '\'' +
                 ", emailAddress='" + emailAddress + '\'' +
+                ", version=" + version +
                 '}';
     }
 
@@ -0,0 +1,39 @@
+package io.github.leonardomvs.springmvc.models;
+
+public class GradeImportError {
+
+    private final long row;
+
+    private final GradeRejection reason;
+
+    private final String value;
+
+    public GradeImportError(long row, GradeRejection reason, String value) {
+        this.row = row;
+        this.reason = reason;
+        this.value = value;
+    }
+
+    // 1-based line (CSV) or element (JSON) number in the uploaded document
+    public long getRow() {
+        return row;
+    }
+
+    public GradeRejection getReason() {
+        return reason;
+    }
+
+    // the rejected input as it was read
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "GradeImportError{" +
+                "row=" + row +
+                ", reason=" + reason +
+                ", value='" + value + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.leonardomvs.springmvc.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GradeImportReport {
+
+    private long accepted;
+
+    private long rejected;
+
+    private final List<GradeImportError> errors = new ArrayList<>();
+
+    public void accept(int count) {
+        accepted += count;
+    }
+
+    public void reject(long row, GradeRejection reason, String value) {
+        rejected++;
+        errors.add(new GradeImportError(row, reason, value));
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<GradeImportError> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "GradeImportReport{" +
+                "accepted=" + accepted +
+                ", rejected=" + rejected +
+                '}';
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.leonardomvs.springmvc.models;
+
+public enum GradeRejection {
+
+	// the row could not be read as student id, grade type and grade
+	MALFORMED_ROW,
+
+	// grades must be between 0 and 100
+	GRADE_OUT_OF_RANGE,
+
+	// not one of the configured subjects
+	UNKNOWN_GRADE_TYPE,
+
+	// no student with that id
+	UNKNOWN_STUDENT,
+
+	// the database failed to save the chunk of rows holding this one
+	SAVE_FAILED
+
+}
@@ -0,0 +1,54 @@
+package io.github.leonardomvs.springmvc.models;
+
+// The JSON body of a new grade, the fields of the grade form
+public class GradeRequest {
+
+    private int studentId;
+
+    private String gradeType;
+
+    private double grade;
+
+    public GradeRequest() {
+
+    }
+
+    public GradeRequest(int studentId, String gradeType, double grade) {
+        this.studentId = studentId;
+        this.gradeType = gradeType;
+        this.grade = grade;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getGradeType() {
+        return gradeType;
+    }
+
+    public void setGradeType(String gradeType) {
+        this.gradeType = gradeType;
+    }
+
+    public double getGrade() {
+        return grade;
+    }
+
+    public void setGrade(double grade) {
+        this.grade = grade;
+    }
+
+    @Override
+    public String toString() {
+        return "GradeRequest{" +
+                "studentId=" + studentId +
+                ", gradeType='" + gradeType + '\'' +
+                ", grade=" + grade +
+                '}';
+    }
+}
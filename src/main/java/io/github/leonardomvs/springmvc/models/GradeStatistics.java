@@ -0,0 +1,111 @@
+package io.github.leonardomvs.springmvc.models;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "grade_statistics")
+@IdClass(GradeStatisticsId.class)
+public class GradeStatistics {
+    @Id
+    @Column(name="student_id")
+    private int studentId;
+    @Id
+    @Column(name="grade_type", length = 16)
+    private String gradeType;
+    @Column(name="grade_count")
+    private long gradeCount;
+    @Column(name="grade_sum")
+    private double gradeSum;
+    @Column(name="min_grade")
+    private Double minGrade;
+    @Column(name="max_grade")
+    private Double maxGrade;
+    @Column(name="sum_of_squares")
+    private double sumOfSquares;
+
+    public GradeStatistics() {
+
+    }
+
+    public GradeStatistics(int studentId, String gradeType) {
+        this.studentId = studentId;
+        this.gradeType = gradeType;
+    }
+
+    public void addGrade(double grade) {
+        gradeCount++;
+        gradeSum += grade;
+        sumOfSquares += grade * grade;
+        minGrade = minGrade == null ? grade : Math.min(minGrade, grade);
+        maxGrade = maxGrade == null ? grade : Math.max(maxGrade, grade);
+    }
+
+    // min and max cannot be rolled back, the caller recomputes them when this returns true
+    public boolean removeGrade(double grade) {
+        gradeCount--;
+        gradeSum -= grade;
+        sumOfSquares -= grade * grade;
+        return gradeCount > 0 && (grade <= minGrade || grade >= maxGrade);
+    }
+
+    public boolean isEmpty() {
+        return gradeCount <= 0;
+    }
+
+    public double getAverage() {
+        return gradeSum / gradeCount;
+    }
+
+    public double getVariance() {
+        double average = getAverage();
+        return Math.max(0, sumOfSquares / gradeCount - average * average);
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public String getGradeType() {
+        return gradeType;
+    }
+
+    public long getGradeCount() {
+        return gradeCount;
+    }
+
+    public double getGradeSum() {
+        return gradeSum;
+    }
+
+    public Double getMinGrade() {
+        return minGrade;
+    }
+
+    public void setMinGrade(Double minGrade) {
+        this.minGrade = minGrade;
+    }
+
+    public Double getMaxGrade() {
+        return maxGrade;
+    }
+
+    public void setMaxGrade(Double maxGrade) {
+        this.maxGrade = maxGrade;
+    }
+
+    public double getSumOfSquares() {
+        return sumOfSquares;
+    }
+
+    @Override
+    public String toString() {
+        return "GradeStatistics{" +
+                "studentId=" + studentId +
+                ", gradeType='" + gradeType + '\'' +
+                ", gradeCount=" + gradeCount +
+                ", gradeSum=" + gradeSum +
+                ", minGrade=" + minGrade +
+                ", maxGrade=" + maxGrade +
+                '}';
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.leonardomvs.springmvc.models;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class GradeStatisticsId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int studentId;
+
+    private String gradeType;
+
+    public GradeStatisticsId() {
+
+    }
+
+    public GradeStatisticsId(int studentId, String gradeType) {
+        this.studentId = studentId;
+        this.gradeType = gradeType;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public String getGradeType() {
+        return gradeType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GradeStatisticsId)) {
+            return false;
+        }
+        GradeStatisticsId that = (GradeStatisticsId) o;
+        return studentId == that.studentId && Objects.equals(gradeType, that.gradeType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(studentId, gradeType);
+    }
+}
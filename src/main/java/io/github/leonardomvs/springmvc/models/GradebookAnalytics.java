@@ -0,0 +1,42 @@
+package io.github.leonardomvs.springmvc.models;
+
+import java.util.Map;
+
+// School-wide report: every grade of every subject, and all of a student's grades together as "overall"
+public class GradebookAnalytics {
+
+    private final int studentCount;
+
+    private final SubjectAnalytics overall;
+
+    // by subject, in display order
+    private final Map<String, SubjectAnalytics> subjects;
+
+    public GradebookAnalytics(int studentCount, SubjectAnalytics overall, Map<String, SubjectAnalytics> subjects) {
+        this.studentCount = studentCount;
+        this.overall = overall;
+        this.subjects = subjects;
+    }
+
+    // students with or without grades
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public SubjectAnalytics getOverall() {
+        return overall;
+    }
+
+    public Map<String, SubjectAnalytics> getSubjects() {
+        return subjects;
+    }
+
+    @Override
+    public String toString() {
+        return "GradebookAnalytics{" +
+                "studentCount=" + studentCount +
+                ", overall=" + overall +
+                ", subjects=" + subjects.keySet() +
+                '}';
+    }
+}
@@ -6,6 +6,8 @@ public class GradebookCollegeStudent extends CollegeStudent{
 
     private StudentGrades studentGrades;
 
+    private StudentGradeSnapshot gradeSnapshot;
+
     public GradebookCollegeStudent(String firstname, String lastname, String emailAddress) {
         super(firstname, lastname, emailAddress);
     }
@@ -14,6 +16,19 @@ public class GradebookCollegeStudent extends CollegeStudent{
         super(firstname, lastname, emailAddress);
         this.studentGrades = studentGrades;
         this.id = id;
+        if (studentGrades != null) {
+            this.gradeSnapshot = StudentGradeSnapshot.of(studentGrades.getMathGradeResults(),
+                    studentGrades.getScienceGradeResults(),
+                    studentGrades.getHistoryGradeResults());
+        }
+    }
+
+    public GradebookCollegeStudent(int id, String firstname, String lastname, String emailAddress,
+                                   StudentGrades studentGrades, StudentGradeSnapshot gradeSnapshot) {
+        super(firstname, lastname, emailAddress);
+        this.studentGrades = studentGrades;
+        this.gradeSnapshot = gradeSnapshot;
+        this.id = id;
     }
 
     public StudentGrades getStudentGrades() {
@@ -24,6 +39,10 @@ public class GradebookCollegeStudent extends CollegeStudent{
         this.studentGrades = studentGrades;
     }
 
+    public StudentGradeSnapshot getGradeSnapshot() {
+        return gradeSnapshot;
+    }
+
     @Override
     public int getId() {
         return id;
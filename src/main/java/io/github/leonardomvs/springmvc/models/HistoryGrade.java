@@ -2,8 +2,13 @@ package io.github.leonardomvs.springmvc.models;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 @Entity
-@Table(name = "history_grade")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "history_grade", indexes = @Index(name = "history_grade_student_id_idx", columnList = "student_id"))
 public class HistoryGrade implements Grade {
     @Id
     @GeneratedValue(strategy= GenerationType.IDENTITY)
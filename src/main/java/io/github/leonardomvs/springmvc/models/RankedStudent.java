@@ -0,0 +1,61 @@
+package io.github.leonardomvs.springmvc.models;
+
+// One entry of a top students list, rank 1 is the best average
+public class RankedStudent {
+
+    private final int studentId;
+
+    private final String firstname;
+
+    private final String lastname;
+
+    private final double average;
+
+    private final int rank;
+
+    private final double percentileRank;
+
+    public RankedStudent(int studentId, String firstname, String lastname, double average, int rank,
+                         double percentileRank) {
+        this.studentId = studentId;
+        this.firstname = firstname;
+        this.lastname = lastname;
+        this.average = average;
+        this.rank = rank;
+        this.percentileRank = percentileRank;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public String getFirstname() {
+        return firstname;
+    }
+
+    public String getLastname() {
+        return lastname;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public double getPercentileRank() {
+        return percentileRank;
+    }
+
+    @Override
+    public String toString() {
+        return "RankedStudent{" +
+                "studentId=" + studentId +
+                ", average=" + average +
+                ", rank=" + rank +
+                ", percentileRank=" + percentileRank +
+                '}';
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.leonardomvs.springmvc.models;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class StudentGradeSnapshot {
+
+    // by subject, in display order
+    private final Map<String, SubjectGrades> subjectGrades;
+
+    private StudentGradeSnapshot(Map<String, SubjectGrades> subjectGrades) {
+        this.subjectGrades = subjectGrades;
+    }
+
+    public static StudentGradeSnapshot of(List<? extends Grade> mathGrades,
+                                          List<? extends Grade> scienceGrades,
+                                          List<? extends Grade> historyGrades) {
+        Map<String, List<? extends Grade>> gradesBySubject = new LinkedHashMap<>();
+        gradesBySubject.put("math", mathGrades);
+        gradesBySubject.put("science", scienceGrades);
+        gradesBySubject.put("history", historyGrades);
+        return of(gradesBySubject);
+    }
+
+    public static StudentGradeSnapshot of(Map<String, ? extends List<? extends Grade>> gradesBySubject) {
+        Map<String, SubjectGrades> subjectGrades = new LinkedHashMap<>();
+        gradesBySubject.forEach((subject, grades) -> subjectGrades.put(subject, SubjectGrades.of(grades)));
+        return new StudentGradeSnapshot(Collections.unmodifiableMap(subjectGrades));
+    }
+
+    // empty for a subject without grades
+    public SubjectGrades getSubjectGrades(String subject) {
+        return subjectGrades.getOrDefault(subject, SubjectGrades.EMPTY);
+    }
+
+    public SubjectGrades getMathGrades() {
+        return getSubjectGrades("math");
+    }
+
+    public SubjectGrades getScienceGrades() {
+        return getSubjectGrades("science");
+    }
+
+    public SubjectGrades getHistoryGrades() {
+        return getSubjectGrades("history");
+    }
+
+    @Override
+    public String toString() {
+        return "StudentGradeSnapshot{" +
+                "subjectGrades=" + subjectGrades +
+                '}';
+    }
+
+    public static final class SubjectGrades {
+
+        private static final SubjectGrades EMPTY = new SubjectGrades(new int[0], new double[0], 0);
+
+        private final int[] ids;
+
+        private final double[] grades;
+
+        private final double sum;
+
+        private SubjectGrades(int[] ids, double[] grades, double sum) {
+            this.ids = ids;
+            this.grades = grades;
+            this.sum = sum;
+        }
+
+        // single pass over the source, arrays sized up front
+        static SubjectGrades of(List<? extends Grade> source) {
+            if (source == null || source.isEmpty()) {
+                return EMPTY;
+            }
+            int size = source.size();
+            int[] ids = new int[size];
+            double[] grades = new double[size];
+            double sum = 0;
+            int index = 0;
+            for (Grade grade : source) {
+                ids[index] = grade.getId();
+                grades[index] = grade.getGrade();
+                sum += grades[index];
+                index++;
+            }
+            return new SubjectGrades(ids, grades, sum);
+        }
+
+        public int size() {
+            return grades.length;
+        }
+
+        public boolean isEmpty() {
+            return grades.length == 0;
+        }
+
+        public int getId(int index) {
+            return ids[index];
+        }
+
+        public double getGrade(int index) {
+            return grades[index];
+        }
+
+        public double getSum() {
+            return sum;
+        }
+
+        public double getAverage() {
+            return StudentGrades.roundGradePointAverage(sum, grades.length);
+        }
+
+        @Override
+        public String toString() {
+            return "SubjectGrades{" +
+                    "size=" + grades.length +
+                    ", sum=" + sum +
+                    '}';
+        }
+    }
+}
@@ -1,19 +1,15 @@
 package io.github.leonardomvs.springmvc.models;
 
-import org.springframework.stereotype.Component;
-
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-@Component
 public class StudentGrades {
 
-    private List<Grade> mathGradeResults;
-
-    private List<Grade> scienceGradeResults;
-
-    private List<Grade> historyGradeResults;
+    // by subject in display order, math, science and history included
+    private final Map<String, List<Grade>> gradeResults = new LinkedHashMap<>();
 
     public StudentGrades() {}
 
@@ -28,8 +24,14 @@ public class StudentGrades {
     public double findGradePointAverage (List<Grade> grades ) {
         int lengthOfGrades = grades.size();
         double sum = addGradeResultsForSingleClass(grades);
-        double result = sum / lengthOfGrades;
+        return roundGradePointAverage(sum, lengthOfGrades);
+    }
+
+    public static double roundGradePointAverage(double sum, int lengthOfGrades) {
+        return roundGradePointAverage(sum / lengthOfGrades);
+    }
 
+    public static double roundGradePointAverage(double result) {
         // add a round function
         BigDecimal resultRound = BigDecimal.valueOf(result);
         resultRound = resultRound.setScale(2, RoundingMode.HALF_UP);
@@ -37,34 +39,42 @@ public class StudentGrades {
 
     }
 
+    public List<Grade> getGradeResults(String subject) {
+        return gradeResults.get(subject);
+    }
+
+    public void setGradeResults(String subject, List<Grade> grades) {
+        gradeResults.put(subject, grades);
+    }
+
     public List<Grade> getMathGradeResults() {
-        return mathGradeResults;
+        return getGradeResults("math");
     }
 
     public void setMathGradeResults(List<Grade> mathGradeResults) {
-        this.mathGradeResults = mathGradeResults;
+        setGradeResults("math", mathGradeResults);
     }
 
     public List<Grade> getScienceGradeResults() {
-        return scienceGradeResults;
+        return getGradeResults("science");
     }
 
     public void setScienceGradeResults(List<Grade> scienceGradeResults) {
-        this.scienceGradeResults = scienceGradeResults;
+        setGradeResults("science", scienceGradeResults);
     }
 
     public List<Grade> getHistoryGradeResults() {
-        return historyGradeResults;
+        return getGradeResults("history");
     }
 
     public void setHistoryGradeResults(List<Grade> historyGradeResults) {
-        this.historyGradeResults = historyGradeResults;
+        setGradeResults("history", historyGradeResults);
     }
 
     @Override
     public String toString() {
         return "StudentGrades{" +
-                "mathGradeResults=" + mathGradeResults +
+                "gradeResults=" + gradeResults +
                 '}';
     }
 }
@@ -0,0 +1,64 @@
+package io.github.leonardomvs.springmvc.models;
+
+// What the student information cache keeps: final fields and read-only grades, safe to share between requests
+public final class StudentInformationSnapshot {
+
+    private final int id;
+
+    private final String firstname;
+
+    private final String lastname;
+
+    private final String emailAddress;
+
+    private final long version;
+
+    private final StudentGradeSnapshot gradeSnapshot;
+
+    private StudentInformationSnapshot(GradebookCollegeStudent student) {
+        this.id = student.getId();
+        this.firstname = student.getFirstname();
+        this.lastname = student.getLastname();
+        this.emailAddress = student.getEmailAddress();
+        this.version = student.getVersion();
+        this.gradeSnapshot = student.getGradeSnapshot();
+    }
+
+    // null for a missing student
+    public static StudentInformationSnapshot of(GradebookCollegeStudent student) {
+        return student == null ? null : new StudentInformationSnapshot(student);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getFirstname() {
+        return firstname;
+    }
+
+    public String getLastname() {
+        return lastname;
+    }
+
+    public String getEmailAddress() {
+        return emailAddress;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public StudentGradeSnapshot getGradeSnapshot() {
+        return gradeSnapshot;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentInformationSnapshot{" +
+                "id=" + id +
+                ", version=" + version +
+                ", gradeSnapshot=" + gradeSnapshot +
+                '}';
+    }
+}
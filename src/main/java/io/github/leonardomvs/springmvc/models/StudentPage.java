@@ -0,0 +1,56 @@
+package io.github.leonardomvs.springmvc.models;
+
+import java.util.List;
+
+public class StudentPage {
+
+    private final List<CollegeStudent> students;
+
+    private final int size;
+
+    private final Integer previousCursor;
+
+    private final Integer nextCursor;
+
+    public StudentPage(List<CollegeStudent> students, int size, boolean hasPrevious, boolean hasNext) {
+        this.students = students;
+        this.size = size;
+        this.previousCursor = hasPrevious && !students.isEmpty() ? students.get(0).getId() : null;
+        this.nextCursor = hasNext && !students.isEmpty() ? students.get(students.size() - 1).getId() : null;
+    }
+
+    public List<CollegeStudent> getStudents() {
+        return students;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // id to pass as "before" to get the previous page
+    public Integer getPreviousCursor() {
+        return previousCursor;
+    }
+
+    // id to pass as "after" to get the next page
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentPage{" +
+                "students=" + students.size() +
+                ", previousCursor=" + previousCursor +
+                ", nextCursor=" + nextCursor +
+                '}';
+    }
+}
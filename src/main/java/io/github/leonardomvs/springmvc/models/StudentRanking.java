@@ -0,0 +1,87 @@
+package io.github.leonardomvs.springmvc.models;
+
+import java.util.Map;
+
+// Where one student's averages stand among all students with grades in the same subject
+public class StudentRanking {
+
+    private final int studentId;
+
+    private final Standing overall;
+
+    // only the subjects the student has grades in, in display order
+    private final Map<String, Standing> subjects;
+
+    public StudentRanking(int studentId, Standing overall, Map<String, Standing> subjects) {
+        this.studentId = studentId;
+        this.overall = overall;
+        this.subjects = subjects;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    // null without any grades
+    public Standing getOverall() {
+        return overall;
+    }
+
+    public Map<String, Standing> getSubjects() {
+        return subjects;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentRanking{" +
+                "studentId=" + studentId +
+                ", overall=" + overall +
+                ", subjects=" + subjects +
+                '}';
+    }
+
+    public static final class Standing {
+
+        private final double average;
+
+        private final int rank;
+
+        private final double percentileRank;
+
+        private final int studentCount;
+
+        public Standing(double average, int rank, double percentileRank, int studentCount) {
+            this.average = average;
+            this.rank = rank;
+            this.percentileRank = percentileRank;
+            this.studentCount = studentCount;
+        }
+
+        public double getAverage() {
+            return average;
+        }
+
+        // 1 is the best average, students with the same average share a rank
+        public int getRank() {
+            return rank;
+        }
+
+        // share of the students below, counting those with the same average as half, 0 to 100
+        public double getPercentileRank() {
+            return percentileRank;
+        }
+
+        public int getStudentCount() {
+            return studentCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Standing{" +
+                    "average=" + average +
+                    ", rank=" + rank +
+                    ", percentileRank=" + percentileRank +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.leonardomvs.springmvc.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.leonardomvs.springmvc.models.StudentGradeSnapshot.SubjectGrades;
+
+// The JSON body of a student's detail, the same grades and averages as the studentInformation page
+public class StudentTranscript {
+
+    private final int id;
+
+    private final String firstname;
+
+    private final String lastname;
+
+    private final String emailAddress;
+
+    private final long version;
+
+    // by subject, in display order
+    private final Map<String, SubjectTranscript> subjects;
+
+    private StudentTranscript(GradebookCollegeStudent student, Map<String, SubjectTranscript> subjects) {
+        this.id = student.getId();
+        this.firstname = student.getFirstname();
+        this.lastname = student.getLastname();
+        this.emailAddress = student.getEmailAddress();
+        this.version = student.getVersion();
+        this.subjects = subjects;
+    }
+
+    public static StudentTranscript of(GradebookCollegeStudent student, Iterable<String> subjectNames) {
+        Map<String, SubjectTranscript> subjects = new LinkedHashMap<>();
+        for (String subject : subjectNames) {
+            subjects.put(subject, SubjectTranscript.of(student.getGradeSnapshot().getSubjectGrades(subject)));
+        }
+        return new StudentTranscript(student, Collections.unmodifiableMap(subjects));
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getFirstname() {
+        return firstname;
+    }
+
+    public String getLastname() {
+        return lastname;
+    }
+
+    public String getEmailAddress() {
+        return emailAddress;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Map<String, SubjectTranscript> getSubjects() {
+        return subjects;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentTranscript{" +
+                "id=" + id +
+                ", version=" + version +
+                ", subjects=" + subjects.keySet() +
+                '}';
+    }
+
+    public static final class SubjectTranscript {
+
+        private final List<GradeEntry> grades;
+
+        private final Double average;
+
+        private SubjectTranscript(List<GradeEntry> grades, Double average) {
+            this.grades = grades;
+            this.average = average;
+        }
+
+        static SubjectTranscript of(SubjectGrades subjectGrades) {
+            List<GradeEntry> grades = new ArrayList<>(subjectGrades.size());
+            for (int i = 0; i < subjectGrades.size(); i++) {
+                grades.add(new GradeEntry(subjectGrades.getId(i), subjectGrades.getGrade(i)));
+            }
+            return new SubjectTranscript(Collections.unmodifiableList(grades),
+                    subjectGrades.isEmpty() ? null : subjectGrades.getAverage());
+        }
+
+        public List<GradeEntry> getGrades() {
+            return grades;
+        }
+
+        // null without grades
+        public Double getAverage() {
+            return average;
+        }
+    }
+
+    public static final class GradeEntry {
+
+        private final int id;
+
+        private final double grade;
+
+        private GradeEntry(int id, double grade) {
+            this.id = id;
+            this.grade = grade;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public double getGrade() {
+            return grade;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.leonardomvs.springmvc.models;
+
+import java.util.List;
+import java.util.Map;
+
+// The distribution of one subject's grades across the school and its best students by average
+public class SubjectAnalytics {
+
+    private final long gradeCount;
+
+    private final int studentCount;
+
+    private final Double average;
+
+    private final Double standardDeviation;
+
+    private final Double minimum;
+
+    private final Double maximum;
+
+    private final Map<String, Double> percentiles;
+
+    private final long[] histogram;
+
+    private final List<RankedStudent> topStudents;
+
+    public SubjectAnalytics(long gradeCount, int studentCount, Double average, Double standardDeviation,
+                            Double minimum, Double maximum, Map<String, Double> percentiles, long[] histogram,
+                            List<RankedStudent> topStudents) {
+        this.gradeCount = gradeCount;
+        this.studentCount = studentCount;
+        this.average = average;
+        this.standardDeviation = standardDeviation;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.percentiles = percentiles;
+        this.histogram = histogram;
+        this.topStudents = topStudents;
+    }
+
+    public long getGradeCount() {
+        return gradeCount;
+    }
+
+    // students with at least one grade in the subject
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    // null without grades, like the statistics below
+    public Double getAverage() {
+        return average;
+    }
+
+    public Double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public Double getMinimum() {
+        return minimum;
+    }
+
+    public Double getMaximum() {
+        return maximum;
+    }
+
+    // nearest-rank grade percentiles, keyed p10, p25, p50, p75 and p90
+    public Map<String, Double> getPercentiles() {
+        return percentiles;
+    }
+
+    // grade counts of 0 to 10, 10 to 20 and so on, 100 is counted in the last bucket
+    public long[] getHistogram() {
+        return histogram;
+    }
+
+    public List<RankedStudent> getTopStudents() {
+        return topStudents;
+    }
+
+    @Override
+    public String toString() {
+        return "SubjectAnalytics{" +
+                "gradeCount=" + gradeCount +
+                ", studentCount=" + studentCount +
+                ", average=" + average +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.leonardomvs.springmvc.models;
+
+import javax.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+// Every subject in one table, used when gradebook.grades.storage=single-table
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "grade", indexes = @Index(name = "grade_student_id_subject_idx", columnList = "student_id, subject"))
+public class SubjectGrade implements Grade {
+    @Id
+    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    private int id;
+    @Column(name="student_id")
+    private int studentId;
+    @Column(name="subject", length = 16)
+    private String subject;
+    @Column(name="grade")
+    private double grade;
+
+    public SubjectGrade() {
+
+    }
+
+    public SubjectGrade(String subject, double grade) {
+        this.subject = subject;
+        this.grade = grade;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    @Override
+    public double getGrade() {
+        return grade;
+    }
+
+    public void setGrade(double grade) {
+        this.grade = grade;
+    }
+}
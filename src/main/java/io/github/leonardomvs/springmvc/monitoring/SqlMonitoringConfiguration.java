@@ -0,0 +1,65 @@
+package io.github.leonardomvs.springmvc.monitoring;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/*
+ * Wraps the DataSource in a datasource-proxy so every statement is counted per
+ * request and timed, see gradebook.sql.* in application.properties.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gradebook.sql.monitoring.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMonitoringConfiguration implements WebMvcConfigurer {
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${gradebook.sql.request.max-statements:20}")
+	private int maxStatements;
+
+	@Value("${gradebook.sql.request.max-jdbc-millis:200}")
+	private long maxJdbcMillis;
+
+	// static, so the DataSource is not created before the post processor is registered
+	@Bean
+	static BeanPostProcessor sqlMonitoringDataSourcePostProcessor(Environment environment) {
+
+		long slowQueryMillis = environment.getProperty("gradebook.sql.slow-query-millis", Long.class, 100L);
+		long injectedLatencyMillis = environment.getProperty("gradebook.sql.injected-latency-millis", Long.class, 0L);
+
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+				if(!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+					return bean;
+				}
+
+				return ProxyDataSourceBuilder.create((DataSource) bean)
+						.name(beanName)
+						.listener(new SqlStatementListener(slowQueryMillis, injectedLatencyMillis))
+						.build();
+			}
+		};
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new SqlRequestInterceptor(meterRegistry, maxStatements, maxJdbcMillis));
+	}
+
+}
@@ -0,0 +1,94 @@
+package io.github.leonardomvs.springmvc.monitoring;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/*
+ * Starts the SQL statistics of a request once its handler is known and, when the
+ * request completes, records them and logs the requests above the thresholds.
+ */
+public class SqlRequestInterceptor implements HandlerInterceptor {
+
+	private static final Logger log = LoggerFactory.getLogger(SqlRequestInterceptor.class);
+
+	public static final String REQUEST_STATEMENTS = "gradebook.request.sql.statements";
+
+	public static final String REQUEST_JDBC_TIME = "gradebook.request.sql.time";
+
+	private final MeterRegistry meterRegistry;
+
+	private final int maxStatements;
+
+	private final long maxJdbcNanos;
+
+	public SqlRequestInterceptor(MeterRegistry meterRegistry, int maxStatements, long maxJdbcMillis) {
+		this.meterRegistry = meterRegistry;
+		this.maxStatements = maxStatements;
+		this.maxJdbcNanos = TimeUnit.MILLISECONDS.toNanos(maxJdbcMillis);
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+		if(attributes != null) {
+			SqlRequestStatistics.start(attributes, describe(handler));
+		}
+
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+		if(attributes == null) { return; }
+
+		SqlRequestStatistics statistics = SqlRequestStatistics.of(attributes);
+
+		if(statistics == null) { return; }
+
+		DistributionSummary.builder(REQUEST_STATEMENTS)
+				.description("SQL statements run by one request")
+				.tag("handler", statistics.getHandler())
+				.register(meterRegistry)
+				.record(statistics.getStatements());
+
+		Timer.builder(REQUEST_JDBC_TIME)
+				.description("Time spent in JDBC by one request")
+				.tag("handler", statistics.getHandler())
+				.register(meterRegistry)
+				.record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+		if(statistics.getStatements() > maxStatements || statistics.getJdbcNanos() > maxJdbcNanos) {
+			log.warn("{} {} ran {} SQL statements in {} ms ({})", request.getMethod(), request.getRequestURI(),
+					statistics.getStatements(), TimeUnit.NANOSECONDS.toMillis(statistics.getJdbcNanos()),
+					statistics.getHandler());
+		}
+	}
+
+	// GradebookController#studentInformation, few enough values to use as a tag
+	private static String describe(Object handler) {
+		if(handler instanceof HandlerMethod) {
+			HandlerMethod handlerMethod = (HandlerMethod) handler;
+			return handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName();
+		}
+		return handler.getClass().getSimpleName();
+	}
+
+}
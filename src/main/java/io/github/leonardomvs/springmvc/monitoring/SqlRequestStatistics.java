@@ -0,0 +1,104 @@
+package io.github.leonardomvs.springmvc.monitoring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/*
+ * SQL statements and JDBC time of the current HTTP request, kept as a request
+ * attribute. Statements run outside of a request (scheduled jobs, tests) are not counted,
+ * unless a task of the request runs them on another thread, see propagate.
+ */
+public final class SqlRequestStatistics {
+
+	private static final String ATTRIBUTE_NAME = SqlRequestStatistics.class.getName();
+
+	// the statistics of the request a pool thread is working for
+	private static final ThreadLocal<SqlRequestStatistics> PROPAGATED = new ThreadLocal<>();
+
+	private final String handler;
+
+	private final AtomicInteger statements = new AtomicInteger();
+
+	private final AtomicLong jdbcNanos = new AtomicLong();
+
+	private SqlRequestStatistics(String handler) {
+		this.handler = handler;
+	}
+
+	static SqlRequestStatistics start(RequestAttributes attributes, String handler) {
+		SqlRequestStatistics statistics = new SqlRequestStatistics(handler);
+		attributes.setAttribute(ATTRIBUTE_NAME, statistics, RequestAttributes.SCOPE_REQUEST);
+		return statistics;
+	}
+
+	// null outside of a request or before the handler was picked
+	static SqlRequestStatistics current() {
+
+		SqlRequestStatistics propagated = PROPAGATED.get();
+
+		if(propagated != null) { return propagated; }
+
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+		if(attributes == null) { return null; }
+
+		return (SqlRequestStatistics) attributes.getAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+	}
+
+	static SqlRequestStatistics of(RequestAttributes attributes) {
+		return (SqlRequestStatistics) attributes.getAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+	}
+
+	// For a task handed to another thread: its statements are counted for the request that
+	// submits it, without the request attributes themselves leaving the request thread
+	public static Runnable propagate(Runnable task) {
+
+		SqlRequestStatistics statistics = current();
+
+		if(statistics == null) { return task; }
+
+		return () -> {
+			SqlRequestStatistics previous = PROPAGATED.get();
+			PROPAGATED.set(statistics);
+			try {
+				task.run();
+			} finally {
+				if(previous == null) {
+					PROPAGATED.remove();
+				} else {
+					PROPAGATED.set(previous);
+				}
+			}
+		};
+	}
+
+	void record(long nanos) {
+		statements.incrementAndGet();
+		jdbcNanos.addAndGet(nanos);
+	}
+
+	public String getHandler() {
+		return handler;
+	}
+
+	public int getStatements() {
+		return statements.get();
+	}
+
+	public long getJdbcNanos() {
+		return jdbcNanos.get();
+	}
+
+	@Override
+	public String toString() {
+		return "SqlRequestStatistics{" +
+				"handler='" + handler + '\'' +
+				", statements=" + statements +
+				", jdbcNanos=" + jdbcNanos +
+				'}';
+	}
+
+}
@@ -0,0 +1,82 @@
+package io.github.leonardomvs.springmvc.monitoring;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/*
+ * Called by the proxied DataSource around every statement: adds it to the statistics
+ * of the current request, logs it when it is slow and can add a fixed latency to
+ * every statement to stand in for a remote database.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+	private static final Logger log = LoggerFactory.getLogger(SqlStatementListener.class);
+
+	private static final String START_NANOS = SqlStatementListener.class.getName() + ".startNanos";
+
+	private final long slowQueryNanos;
+
+	private final long injectedLatencyMillis;
+
+	public SqlStatementListener(long slowQueryMillis, long injectedLatencyMillis) {
+		this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+		this.injectedLatencyMillis = injectedLatencyMillis;
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+
+		execInfo.addCustomValue(START_NANOS, System.nanoTime());
+
+		if(injectedLatencyMillis > 0) {
+			try {
+				Thread.sleep(injectedLatencyMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+
+		Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+
+		if(startNanos == null) { return; }
+
+		long nanos = System.nanoTime() - startNanos;
+
+		SqlRequestStatistics statistics = SqlRequestStatistics.current();
+
+		if(statistics != null) {
+			statistics.record(nanos);
+		}
+
+		if(nanos >= slowQueryNanos && log.isWarnEnabled()) {
+			log.warn("Slow SQL ({} ms) in {}: {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+					statistics == null ? "no request" : statistics.getHandler(), queries(queryInfoList));
+		}
+	}
+
+	private static String queries(List<QueryInfo> queryInfoList) {
+		if(queryInfoList.size() == 1) {
+			return queryInfoList.get(0).getQuery();
+		}
+		StringBuilder queries = new StringBuilder();
+		for(QueryInfo queryInfo : queryInfoList) {
+			if(queries.length() > 0) {
+				queries.append("; ");
+			}
+			queries.append(queryInfo.getQuery());
+		}
+		return queries.toString();
+	}
+
+}
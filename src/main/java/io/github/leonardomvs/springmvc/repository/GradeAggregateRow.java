@@ -0,0 +1,15 @@
+package io.github.leonardomvs.springmvc.repository;
+
+public interface GradeAggregateRow {
+
+	String getGradeType();
+
+	long getGradeCount();
+
+	Double getAverage();
+
+	Double getMinimum();
+
+	Double getMaximum();
+
+}
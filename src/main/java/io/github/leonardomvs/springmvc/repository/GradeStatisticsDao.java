@@ -0,0 +1,59 @@
+package io.github.leonardomvs.springmvc.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.leonardomvs.springmvc.models.GradeStatistics;
+import io.github.leonardomvs.springmvc.models.GradeStatisticsId;
+
+@Repository
+public interface GradeStatisticsDao extends CrudRepository<GradeStatistics, GradeStatisticsId> {
+
+	public List<GradeStatistics> findByStudentId(int studentId);
+
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM GradeStatistics s WHERE s.studentId = :studentId")
+	public int deleteByStudentId(@Param("studentId") int studentId);
+
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM GradeStatistics s WHERE s.studentId IN :studentIds")
+	public int deleteByStudentIdIn(@Param("studentIds") Collection<Integer> studentIds);
+
+	@Modifying(clearAutomatically = true)
+	@Query(value = "INSERT INTO grade_statistics(student_id, grade_type, grade_count, grade_sum, min_grade, max_grade, sum_of_squares) "
+			+ "SELECT student_id, 'math', COUNT(*), SUM(grade), MIN(grade), MAX(grade), SUM(grade * grade) FROM math_grade WHERE student_id IN (:studentIds) GROUP BY student_id "
+			+ "UNION ALL SELECT student_id, 'science', COUNT(*), SUM(grade), MIN(grade), MAX(grade), SUM(grade * grade) FROM science_grade WHERE student_id IN (:studentIds) GROUP BY student_id "
+			+ "UNION ALL SELECT student_id, 'history', COUNT(*), SUM(grade), MIN(grade), MAX(grade), SUM(grade * grade) FROM history_grade WHERE student_id IN (:studentIds) GROUP BY student_id",
+			nativeQuery = true)
+	public int rebuildByStudentIdIn(@Param("studentIds") Collection<Integer> studentIds);
+
+	@Modifying(clearAutomatically = true)
+	@Query(value = "INSERT INTO grade_statistics(student_id, grade_type, grade_count, grade_sum, min_grade, max_grade, sum_of_squares) "
+			+ "SELECT student_id, 'math', COUNT(*), SUM(grade), MIN(grade), MAX(grade), SUM(grade * grade) FROM math_grade WHERE student_id = :studentId GROUP BY student_id "
+			+ "UNION ALL SELECT student_id, 'science', COUNT(*), SUM(grade), MIN(grade), MAX(grade), SUM(grade * grade) FROM science_grade WHERE student_id = :studentId GROUP BY student_id "
+			+ "UNION ALL SELECT student_id, 'history', COUNT(*), SUM(grade), MIN(grade), MAX(grade), SUM(grade * grade) FROM history_grade WHERE student_id = :studentId GROUP BY student_id",
+			nativeQuery = true)
+	public int rebuildByStudentId(@Param("studentId") int studentId);
+
+	// The same rebuilds for the single grade table
+	@Modifying(clearAutomatically = true)
+	@Query(value = "INSERT INTO grade_statistics(student_id, grade_type, grade_count, grade_sum, min_grade, max_grade, sum_of_squares) "
+			+ "SELECT student_id, subject, COUNT(*), SUM(grade), MIN(grade), MAX(grade), SUM(grade * grade) FROM grade "
+			+ "WHERE student_id IN (:studentIds) GROUP BY student_id, subject",
+			nativeQuery = true)
+	public int rebuildByStudentIdInFromGradeTable(@Param("studentIds") Collection<Integer> studentIds);
+
+	@Modifying(clearAutomatically = true)
+	@Query(value = "INSERT INTO grade_statistics(student_id, grade_type, grade_count, grade_sum, min_grade, max_grade, sum_of_squares) "
+			+ "SELECT student_id, subject, COUNT(*), SUM(grade), MIN(grade), MAX(grade), SUM(grade * grade) FROM grade "
+			+ "WHERE student_id = :studentId GROUP BY student_id, subject",
+			nativeQuery = true)
+	public int rebuildByStudentIdFromGradeTable(@Param("studentId") int studentId);
+
+}
@@ -1,6 +1,12 @@
 package io.github.leonardomvs.springmvc.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import io.github.leonardomvs.springmvc.models.HistoryGrade;
@@ -8,8 +14,19 @@ import io.github.leonardomvs.springmvc.models.HistoryGrade;
 @Repository
 public interface HistoryGradeDao extends CrudRepository<HistoryGrade, Integer> {
 
-	public Iterable<HistoryGrade> findGradeByStudentId(int studentId);
+	public List<HistoryGrade> findGradeByStudentId(int studentId);
+
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM HistoryGrade g WHERE g.studentId = :studentId")
+	public int deleteByStudentId(@Param("studentId") int studentId);
+
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM HistoryGrade g WHERE g.studentId IN :studentIds")
+	public int deleteByStudentIdIn(@Param("studentIds") Collection<Integer> studentIds);
 
-	public void deleteByStudentId(int studentId);
+	// 0 when the grade is already gone
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM HistoryGrade g WHERE g.id = :id")
+	public int deleteGradeById(@Param("id") int id);
 	
 }
@@ -1,6 +1,12 @@
 package io.github.leonardomvs.springmvc.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import io.github.leonardomvs.springmvc.models.MathGrade;
@@ -8,8 +14,20 @@ import io.github.leonardomvs.springmvc.models.MathGrade;
 @Repository
 public interface MathGradeDao extends CrudRepository<MathGrade, Integer> {
 
-	public Iterable<MathGrade> findGradeByStudentId(int studentId);
+	public List<MathGrade> findGradeByStudentId(int studentId);
+
+	// Set-based deletes, one statement however many grades match
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM MathGrade g WHERE g.studentId = :studentId")
+	public int deleteByStudentId(@Param("studentId") int studentId);
+
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM MathGrade g WHERE g.studentId IN :studentIds")
+	public int deleteByStudentIdIn(@Param("studentIds") Collection<Integer> studentIds);
 
-	public void deleteByStudentId(int studentId);
+	// 0 when the grade is already gone
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM MathGrade g WHERE g.id = :id")
+	public int deleteGradeById(@Param("id") int id);
 	
 }
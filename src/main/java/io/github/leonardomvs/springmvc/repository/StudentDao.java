@@ -1,6 +1,13 @@
 package io.github.leonardomvs.springmvc.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import io.github.leonardomvs.springmvc.models.CollegeStudent;
@@ -10,4 +17,54 @@ public interface StudentDao extends CrudRepository<CollegeStudent, Integer> {
 
 	public CollegeStudent findByEmailAddress(String emailAddress);
 	
+	// Keyset pagination, the pageable only carries the limit
+	public List<CollegeStudent> findByIdGreaterThanOrderByIdAsc(int id, Pageable pageable);
+	
+	public List<CollegeStudent> findByIdLessThanOrderByIdDesc(int id, Pageable pageable);
+	
+	// Marks the student's grades as changed and takes the row lock that serializes grade writes for one
+	// student, returns 0 for an unknown id. JPQL so Hibernate only invalidates the cached students
+	@Modifying
+	@Query("UPDATE CollegeStudent s SET s.version = s.version + 1 WHERE s.id = :id")
+	public int incrementVersion(@Param("id") int id);
+	
+	// Bulk version of incrementVersion for students that are already locked
+	@Modifying
+	@Query("UPDATE CollegeStudent s SET s.version = s.version + 1 WHERE s.id IN :ids")
+	public int incrementVersions(@Param("ids") Collection<Integer> ids);
+	
+	// Row locks without a version bump, returns the ids that exist. Locks are taken in id order so two
+	// writers cannot deadlock
+	@Query(value = "SELECT id FROM student WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+	public List<Integer> lockAllById(@Param("ids") Collection<Integer> ids);
+	
+	// Keyset pagination over the ids only, the pageable only carries the limit
+	@Query("SELECT s.id FROM CollegeStudent s WHERE s.id > :id ORDER BY s.id")
+	public List<Integer> findIdsGreaterThan(@Param("id") int id, Pageable pageable);
+	
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM CollegeStudent s WHERE s.id IN :ids")
+	public int deleteByIdIn(@Param("ids") Collection<Integer> ids);
+	
+	// One row per grade (or a single row with null grade columns), student columns repeated
+	@Query(value = "SELECT s.id AS studentId, s.firstname AS firstname, s.lastname AS lastname, "
+			+ "s.email_address AS emailAddress, s.version AS version, g.grade_type AS gradeType, g.id AS gradeId, g.grade AS grade "
+			+ "FROM student s LEFT JOIN ("
+			+ "SELECT CAST('math' AS VARCHAR(16)) AS grade_type, id, student_id, grade FROM math_grade WHERE student_id = :studentId "
+			+ "UNION ALL SELECT CAST('science' AS VARCHAR(16)), id, student_id, grade FROM science_grade WHERE student_id = :studentId "
+			+ "UNION ALL SELECT CAST('history' AS VARCHAR(16)), id, student_id, grade FROM history_grade WHERE student_id = :studentId"
+			+ ") g ON g.student_id = s.id "
+			+ "WHERE s.id = :studentId ORDER BY g.id", nativeQuery = true)
+	public List<StudentTranscriptRow> findTranscriptByStudentId(@Param("studentId") int studentId);
+	
+	// Always one row per subject, with a zero count and null values when the student has no grades
+	@Query(value = "SELECT CAST('math' AS VARCHAR(16)) AS gradeType, COUNT(*) AS gradeCount, "
+			+ "AVG(grade) AS average, MIN(grade) AS minimum, MAX(grade) AS maximum "
+			+ "FROM math_grade WHERE student_id = :studentId "
+			+ "UNION ALL SELECT CAST('science' AS VARCHAR(16)), COUNT(*), AVG(grade), MIN(grade), MAX(grade) "
+			+ "FROM science_grade WHERE student_id = :studentId "
+			+ "UNION ALL SELECT CAST('history' AS VARCHAR(16)), COUNT(*), AVG(grade), MIN(grade), MAX(grade) "
+			+ "FROM history_grade WHERE student_id = :studentId", nativeQuery = true)
+	public List<GradeAggregateRow> findGradeAggregatesByStudentId(@Param("studentId") int studentId);
+	
 }
@@ -0,0 +1,21 @@
+package io.github.leonardomvs.springmvc.repository;
+
+public interface StudentTranscriptRow {
+
+	int getStudentId();
+
+	String getFirstname();
+
+	String getLastname();
+
+	String getEmailAddress();
+
+	long getVersion();
+
+	String getGradeType();
+
+	Integer getGradeId();
+
+	Double getGrade();
+
+}
@@ -0,0 +1,39 @@
+package io.github.leonardomvs.springmvc.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import io.github.leonardomvs.springmvc.models.SubjectGrade;
+
+@Repository
+public interface SubjectGradeDao extends CrudRepository<SubjectGrade, Integer> {
+
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM SubjectGrade g WHERE g.studentId IN :studentIds")
+	public int deleteByStudentIdIn(@Param("studentIds") Collection<Integer> studentIds);
+
+	// 0 when the grade is already gone or belongs to another subject
+	@Modifying(clearAutomatically = true)
+	@Query("DELETE FROM SubjectGrade g WHERE g.id = :id AND g.subject = :subject")
+	public int deleteGradeById(@Param("id") int id, @Param("subject") String subject);
+
+	// Same rows as StudentDao.findTranscriptByStudentId, read with one range scan of the (student_id, subject) index
+	@Query(value = "SELECT s.id AS studentId, s.firstname AS firstname, s.lastname AS lastname, "
+			+ "s.email_address AS emailAddress, s.version AS version, g.subject AS gradeType, g.id AS gradeId, g.grade AS grade "
+			+ "FROM student s LEFT JOIN grade g ON g.student_id = s.id "
+			+ "WHERE s.id = :studentId ORDER BY g.id", nativeQuery = true)
+	public List<StudentTranscriptRow> findTranscriptByStudentId(@Param("studentId") int studentId);
+
+	// Like StudentDao.findGradeAggregatesByStudentId but only for the subjects with grades, any subject
+	@Query(value = "SELECT subject AS gradeType, COUNT(*) AS gradeCount, "
+			+ "AVG(grade) AS average, MIN(grade) AS minimum, MAX(grade) AS maximum "
+			+ "FROM grade WHERE student_id = :studentId GROUP BY subject", nativeQuery = true)
+	public List<GradeAggregateRow> findGradeAggregatesByStudentId(@Param("studentId") int studentId);
+
+}
@@ -0,0 +1,14 @@
+package io.github.leonardomvs.springmvc.service;
+
+public enum GradeAverageSource {
+
+	// averages computed from the grades already loaded for the page
+	GRADES,
+
+	// averages computed by the database with AVG/COUNT/MIN/MAX
+	AGGREGATE,
+
+	// averages read from the running totals in grade_statistics
+	STATISTICS
+
+}
@@ -0,0 +1,122 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Count, sum, sum of squares, bounds and a histogram of ten 10-point buckets of
+ * a column of grades. Computed with a fork/join reduction: the column is split
+ * in halves until a slice is small enough to sum in a plain loop, and the
+ * partial distributions are combined on the way back up.
+ */
+final class GradeDistribution {
+
+	static final int BUCKETS = 10;
+
+	// slices below this are not worth another task
+	private static final int SLICE_SIZE = 8192;
+
+	private long count;
+
+	private double sum;
+
+	private double sumOfSquares;
+
+	private double minimum = Double.POSITIVE_INFINITY;
+
+	private double maximum = Double.NEGATIVE_INFINITY;
+
+	private final long[] histogram = new long[BUCKETS];
+
+	static GradeDistribution of(double[] grades, int size) {
+		return ForkJoinPool.commonPool().invoke(new ReductionTask(grades, 0, size));
+	}
+
+	private void add(double grade) {
+		count++;
+		sum += grade;
+		sumOfSquares += grade * grade;
+		minimum = Math.min(minimum, grade);
+		maximum = Math.max(maximum, grade);
+		// 100 goes into the 90 to 100 bucket
+		histogram[Math.max(0, Math.min((int) (grade / 10), BUCKETS - 1))]++;
+	}
+
+	private GradeDistribution combine(GradeDistribution other) {
+		count += other.count;
+		sum += other.sum;
+		sumOfSquares += other.sumOfSquares;
+		minimum = Math.min(minimum, other.minimum);
+		maximum = Math.max(maximum, other.maximum);
+		for(int bucket = 0; bucket < BUCKETS; bucket++) {
+			histogram[bucket] += other.histogram[bucket];
+		}
+		return this;
+	}
+
+	long getCount() {
+		return count;
+	}
+
+	boolean isEmpty() {
+		return count == 0;
+	}
+
+	double getAverage() {
+		return sum / count;
+	}
+
+	double getStandardDeviation() {
+		double average = getAverage();
+		return Math.sqrt(Math.max(0, sumOfSquares / count - average * average));
+	}
+
+	double getMinimum() {
+		return minimum;
+	}
+
+	double getMaximum() {
+		return maximum;
+	}
+
+	long[] getHistogram() {
+		return histogram.clone();
+	}
+
+	private static final class ReductionTask extends RecursiveTask<GradeDistribution> {
+
+		private final double[] grades;
+
+		private final int from;
+
+		private final int to;
+
+		private ReductionTask(double[] grades, int from, int to) {
+			this.grades = grades;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected GradeDistribution compute() {
+
+			if(to - from <= SLICE_SIZE) {
+				GradeDistribution distribution = new GradeDistribution();
+				for(int i = from; i < to; i++) {
+					distribution.add(grades[i]);
+				}
+				return distribution;
+			}
+
+			int middle = (from + to) >>> 1;
+
+			ReductionTask left = new ReductionTask(grades, from, middle);
+			left.fork();
+
+			GradeDistribution right = new ReductionTask(grades, middle, to).compute();
+
+			return left.join().combine(right);
+		}
+	}
+
+}
@@ -0,0 +1,277 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.leonardomvs.springmvc.models.GradeImportError;
+import io.github.leonardomvs.springmvc.models.GradeImportReport;
+import io.github.leonardomvs.springmvc.models.GradeRejection;
+import io.github.leonardomvs.springmvc.repository.StudentDao;
+
+/*
+ * Loads many grades at once. Rows are read as a stream and saved in chunks, each
+ * chunk in its own transaction, so this service is deliberately not @Transactional.
+ * Invalid rows are reported back and skipped, they never fail the rest of the import,
+ * and neither does a chunk the database fails to save.
+ */
+@Service
+public class GradeImportService {
+
+	private static final Logger log = LoggerFactory.getLogger(GradeImportService.class);
+
+	@Autowired
+	StudentDao studentDao;
+
+	@Autowired
+	StudentAndGradeService studentService;
+
+	@Autowired
+	GradeStatisticsService gradeStatisticsService;
+
+	@Autowired
+	StudentInformationCache studentInformationCache;
+
+	@Autowired
+	GradeStore gradeStore;
+
+	@Autowired
+	GradebookMetrics gradebookMetrics;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Value("${gradebook.import.chunk-size:1000}")
+	private int chunkSize;
+
+	// studentId,gradeType,grade per line, with an optional header line
+	public GradeImportReport importCsv(Reader reader) throws IOException {
+
+		GradeImportReport report = new GradeImportReport();
+		List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+		BufferedReader lines = new BufferedReader(reader);
+		String line;
+		long row = 0;
+
+		while((line = lines.readLine()) != null) {
+
+			row++;
+
+			if(line.isBlank() || (row == 1 && isCsvHeader(line))) { continue; }
+
+			String[] columns = line.split(",", -1);
+
+			if(columns.length != 3) {
+				report.reject(row, GradeRejection.MALFORMED_ROW, line);
+				continue;
+			}
+
+			try {
+				addRow(new ImportRow(row, Integer.parseInt(columns[0].trim()), columns[1].trim(),
+						Double.parseDouble(columns[2].trim()), line), chunk, report);
+			} catch (NumberFormatException e) {
+				report.reject(row, GradeRejection.MALFORMED_ROW, line);
+			}
+		}
+
+		importChunk(chunk, report);
+
+		recordRejections(report);
+
+		return report;
+	}
+
+	// a JSON array, or one object per line, of {"studentId": 1, "gradeType": "math", "grade": 90.5}
+	public GradeImportReport importJson(InputStream in) throws IOException {
+
+		GradeImportReport report = new GradeImportReport();
+		List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+		long row = 0;
+
+		try(MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+
+			while(nodes.hasNextValue()) {
+
+				JsonNode node = nodes.nextValue();
+
+				row++;
+
+				JsonNode studentId = node.get("studentId");
+				JsonNode gradeType = node.get("gradeType");
+				JsonNode grade = node.get("grade");
+
+				if(studentId == null || !studentId.isIntegralNumber() || !studentId.canConvertToInt()
+						|| gradeType == null || !gradeType.isTextual()
+						|| grade == null || !grade.isNumber()) {
+					report.reject(row, GradeRejection.MALFORMED_ROW, node.toString());
+					continue;
+				}
+
+				addRow(new ImportRow(row, studentId.intValue(), gradeType.textValue(), grade.doubleValue(),
+						node.toString()), chunk, report);
+			}
+
+		} catch (JsonProcessingException e) {
+			// the parser cannot resume after a syntax error, keep what was read so far
+			report.reject(row + 1, GradeRejection.MALFORMED_ROW, e.getOriginalMessage());
+		}
+
+		importChunk(chunk, report);
+
+		recordRejections(report);
+
+		return report;
+	}
+
+	private void recordRejections(GradeImportReport report) {
+		for(GradeImportError error : report.getErrors()) {
+			gradebookMetrics.importRowRejected(error.getReason());
+		}
+	}
+
+	private boolean isCsvHeader(String line) {
+		return line.trim().toLowerCase().startsWith("studentid");
+	}
+
+	private void addRow(ImportRow row, List<ImportRow> chunk, GradeImportReport report) {
+
+		// same checks as a single grade, the student is checked for the whole chunk at once
+		GradeRejection rejection = studentService.validateGrade(row.grade, row.gradeType);
+
+		if(rejection != null) {
+			report.reject(row.row, rejection, row.value);
+			return;
+		}
+
+		chunk.add(row);
+
+		if(chunk.size() >= chunkSize) {
+			importChunk(chunk, report);
+			chunk.clear();
+		}
+	}
+
+	private void importChunk(List<ImportRow> chunk, GradeImportReport report) {
+
+		if(chunk.isEmpty()) { return; }
+
+		Set<Integer> studentIds = new TreeSet<>();
+		for(ImportRow row : chunk) {
+			studentIds.add(row.studentId);
+		}
+
+		// unknown students only go into the report once the chunk is committed
+		List<ImportRow> unknownStudentRows = new ArrayList<>();
+
+		int accepted;
+
+		try {
+			accepted = saveChunk(chunk, studentIds, unknownStudentRows);
+		} catch (DataAccessException | TransactionException e) {
+			// the chunk was rolled back, its rows are reported and the next chunks still run
+			log.warn("Grade import chunk of rows {} to {} failed", chunk.get(0).row, chunk.get(chunk.size() - 1).row, e);
+			for(ImportRow row : chunk) {
+				report.reject(row.row, GradeRejection.SAVE_FAILED, row.value);
+			}
+			return;
+		}
+
+		report.accept(accepted);
+
+		for(ImportRow row : unknownStudentRows) {
+			report.reject(row.row, GradeRejection.UNKNOWN_STUDENT, row.value);
+		}
+	}
+
+	// returns the number of saved grades
+	private int saveChunk(List<ImportRow> chunk, Set<Integer> studentIds, List<ImportRow> unknownStudentRows) {
+
+		return new TransactionTemplate(transactionManager).execute(status -> {
+
+			// one query checks every student of the chunk and takes the locks the statistics update needs
+			Set<Integer> existingIds = new HashSet<>(studentDao.lockAllById(studentIds));
+
+			Map<String, List<Object[]>> inserts = new HashMap<>();
+			Map<Integer, Map<String, List<Double>>> gradesByStudent = new HashMap<>();
+			int accepted = 0;
+
+			for(ImportRow row : chunk) {
+
+				if(!existingIds.contains(row.studentId)) {
+					unknownStudentRows.add(row);
+					continue;
+				}
+
+				inserts.computeIfAbsent(row.gradeType, gradeType -> new ArrayList<>())
+						.add(new Object[] { row.studentId, row.grade });
+				gradesByStudent.computeIfAbsent(row.studentId, studentId -> new HashMap<>())
+						.computeIfAbsent(row.gradeType, gradeType -> new ArrayList<>())
+						.add(row.grade);
+				accepted++;
+			}
+
+			if(inserts.isEmpty()) { return 0; }
+
+			gradeStore.insertGrades(inserts);
+
+			studentDao.incrementVersions(gradesByStudent.keySet());
+
+			gradesByStudent.forEach((studentId, grades) -> {
+				grades.forEach((gradeType, values) -> gradeStatisticsService.recordGrades(studentId, gradeType, values));
+				studentInformationCache.evict(studentId);
+			});
+
+			return accepted;
+		});
+	}
+
+	private static final class ImportRow {
+
+		private final long row;
+
+		private final int studentId;
+
+		private final String gradeType;
+
+		private final double grade;
+
+		private final String value;
+
+		private ImportRow(long row, int studentId, String gradeType, double grade, String value) {
+			this.row = row;
+			this.studentId = studentId;
+			this.gradeType = gradeType;
+			this.grade = grade;
+			this.value = value;
+		}
+	}
+
+}
@@ -0,0 +1,144 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.github.leonardomvs.springmvc.models.GradeStatistics;
+import io.github.leonardomvs.springmvc.models.GradeStatisticsId;
+import io.github.leonardomvs.springmvc.repository.GradeAggregateRow;
+import io.github.leonardomvs.springmvc.repository.GradeStatisticsDao;
+import io.github.leonardomvs.springmvc.repository.StudentDao;
+
+/*
+ * Keeps one running summary row per student and subject. Callers must hold the
+ * student row lock (StudentDao.incrementVersion) so concurrent writes for the same
+ * student are applied one after the other.
+ */
+@Service
+@Transactional
+public class GradeStatisticsService {
+
+	@Autowired
+	GradeStatisticsDao gradeStatisticsDao;
+
+	@Autowired
+	GradeStore gradeStore;
+
+	@Autowired
+	StudentDao studentDao;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Value("${gradebook.statistics.rebuild-batch-size:500}")
+	private int rebuildBatchSize;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public void recordGrade(int studentId, String gradeType, double grade) {
+
+		GradeStatistics statistics = gradeStatisticsDao.findById(new GradeStatisticsId(studentId, gradeType))
+				.orElseGet(() -> new GradeStatistics(studentId, gradeType));
+
+		statistics.addGrade(grade);
+
+		gradeStatisticsDao.save(statistics);
+	}
+
+	public void recordGrades(int studentId, String gradeType, List<Double> grades) {
+
+		GradeStatistics statistics = gradeStatisticsDao.findById(new GradeStatisticsId(studentId, gradeType))
+				.orElseGet(() -> new GradeStatistics(studentId, gradeType));
+
+		for(double grade : grades) {
+			statistics.addGrade(grade);
+		}
+
+		gradeStatisticsDao.save(statistics);
+	}
+
+	public void removeGrade(int studentId, String gradeType, double grade) {
+
+		GradeStatistics statistics = gradeStatisticsDao.findById(new GradeStatisticsId(studentId, gradeType))
+				.orElse(null);
+
+		if(statistics == null) { return; }
+
+		boolean boundsChanged = statistics.removeGrade(grade);
+
+		if(statistics.isEmpty()) {
+			gradeStatisticsDao.delete(statistics);
+			return;
+		}
+
+		if(boundsChanged) {
+			// the removed grade was the min or the max, read the new bounds back from the table
+			entityManager.flush();
+			for(GradeAggregateRow aggregate : gradeStore.findGradeAggregates(studentId)) {
+				if(aggregate.getGradeType().equals(gradeType)) {
+					statistics.setMinGrade(aggregate.getMinimum());
+					statistics.setMaxGrade(aggregate.getMaximum());
+				}
+			}
+		}
+
+		gradeStatisticsDao.save(statistics);
+	}
+
+	public List<GradeStatistics> findGradeStatistics(int studentId) {
+		return gradeStatisticsDao.findByStudentId(studentId);
+	}
+
+	public void deleteStudents(Collection<Integer> studentIds) {
+		gradeStatisticsDao.deleteByStudentIdIn(studentIds);
+	}
+
+	public void rebuild(int studentId) {
+		gradeStatisticsDao.deleteByStudentId(studentId);
+		entityManager.flush();
+		gradeStore.rebuildStatistics(studentId);
+	}
+
+	// One transaction per batch of students, holding their row locks like any other grade write, so
+	// grade writes for a batch wait for its rebuild instead of getting lost and the rest are not blocked
+	@Scheduled(cron = "${gradebook.statistics.rebuild-cron:-}")
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
+	public int rebuildAll() {
+
+		TransactionTemplate batchTransaction = new TransactionTemplate(transactionManager);
+
+		int rows = 0;
+		int lastId = 0;
+
+		List<Integer> batch;
+		while(!(batch = studentDao.findIdsGreaterThan(lastId, PageRequest.of(0, rebuildBatchSize))).isEmpty()) {
+
+			List<Integer> studentIds = batch;
+
+			rows += batchTransaction.execute(status -> {
+				List<Integer> lockedIds = studentDao.lockAllById(studentIds);
+				if(lockedIds.isEmpty()) { return 0; }
+				gradeStatisticsDao.deleteByStudentIdIn(lockedIds);
+				return gradeStore.rebuildStatistics(lockedIds);
+			});
+
+			lastId = batch.get(batch.size() - 1);
+		}
+
+		return rows;
+	}
+
+}
@@ -0,0 +1,43 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import io.github.leonardomvs.springmvc.models.Grade;
+import io.github.leonardomvs.springmvc.repository.GradeAggregateRow;
+import io.github.leonardomvs.springmvc.repository.StudentTranscriptRow;
+
+/*
+ * Where grades are kept, picked with gradebook.grades.storage:
+ * subject-tables (math_grade, science_grade, history_grade) or single-table (grade).
+ * Grade types are validated by the caller, except for findGrade.
+ */
+public interface GradeStore {
+
+	Grade saveGrade(int studentId, String gradeType, double grade);
+
+	// null when there is no grade with that id and type
+	Grade findGrade(int id, String gradeType);
+
+	// the number of deleted rows, 0 when the grade is already gone
+	int deleteGrade(int id, String gradeType);
+
+	int deleteByStudentIds(Collection<Integer> studentIds);
+
+	// studentId and grade pairs per grade type, inserted with JDBC batches
+	void insertGrades(Map<String, List<Object[]>> gradesByType);
+
+	List<StudentTranscriptRow> findTranscript(int studentId);
+
+	// subjects without grades may be left out
+	List<GradeAggregateRow> findGradeAggregates(int studentId);
+
+	// student_id, firstname, lastname, email_address, grade_type and grade for every grade, ordered by student
+	String gradebookQuery();
+
+	int rebuildStatistics(Collection<Integer> studentIds);
+
+	int rebuildStatistics(int studentId);
+
+}
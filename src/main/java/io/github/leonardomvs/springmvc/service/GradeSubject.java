@@ -0,0 +1,76 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.function.DoubleFunction;
+import java.util.function.IntUnaryOperator;
+
+import org.springframework.data.repository.CrudRepository;
+
+import io.github.leonardomvs.springmvc.models.Grade;
+
+// A subject of the gradebook: its grade type, the table and repository of its grades,
+// how a grade entity is created and deleted and the model attribute of its average
+public final class GradeSubject<G extends Grade> {
+
+	private final String name;
+
+	private final String table;
+
+	private final String modelAttribute;
+
+	private final DoubleFunction<G> gradeFactory;
+
+	private final CrudRepository<G, Integer> repository;
+
+	// grade id to the number of deleted rows
+	private final IntUnaryOperator gradeDeleter;
+
+	GradeSubject(String name, String table, DoubleFunction<G> gradeFactory, CrudRepository<G, Integer> repository,
+			IntUnaryOperator gradeDeleter) {
+		this.name = name;
+		this.table = table;
+		this.modelAttribute = name + "Average";
+		this.gradeFactory = gradeFactory;
+		this.repository = repository;
+		this.gradeDeleter = gradeDeleter;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getTable() {
+		return table;
+	}
+
+	public String getModelAttribute() {
+		return modelAttribute;
+	}
+
+	public Grade newGrade(double grade) {
+		return gradeFactory.apply(grade);
+	}
+
+	public Grade save(int studentId, double grade) {
+		G entity = gradeFactory.apply(grade);
+		entity.setStudentId(studentId);
+		return repository.save(entity);
+	}
+
+	public Grade findById(int id) {
+		return repository.findById(id).orElse(null);
+	}
+
+	// 0 when there is no grade with that id
+	public int deleteById(int id) {
+		return gradeDeleter.applyAsInt(id);
+	}
+
+	@Override
+	public String toString() {
+		return "GradeSubject{" +
+				"name='" + name + '\'' +
+				", table='" + table + '\'' +
+				'}';
+	}
+
+}
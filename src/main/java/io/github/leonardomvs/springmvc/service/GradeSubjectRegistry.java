@@ -0,0 +1,111 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.github.leonardomvs.springmvc.models.HistoryGrade;
+import io.github.leonardomvs.springmvc.models.MathGrade;
+import io.github.leonardomvs.springmvc.models.ScienceGrade;
+import io.github.leonardomvs.springmvc.models.SubjectGrade;
+import io.github.leonardomvs.springmvc.repository.HistoryGradeDao;
+import io.github.leonardomvs.springmvc.repository.MathGradeDao;
+import io.github.leonardomvs.springmvc.repository.ScienceGradeDao;
+import io.github.leonardomvs.springmvc.repository.SubjectGradeDao;
+
+/*
+ * The subjects grades can be given in, looked up by grade type with one map lookup.
+ * Math, science and history have their own tables. More subjects can be listed in
+ * gradebook.subjects.extra, they are kept in the single grade table and so need
+ * gradebook.grades.storage=single-table.
+ */
+@Component
+public class GradeSubjectRegistry {
+
+	// the subject is stored in a VARCHAR(16) and used in model attribute and element ids
+	private static final String SUBJECT_NAME_PATTERN = "[a-z][a-zA-Z0-9]{0,15}";
+
+	@Autowired
+	MathGradeDao mathGradeDao;
+
+	@Autowired
+	ScienceGradeDao scienceGradeDao;
+
+	@Autowired
+	HistoryGradeDao historyGradeDao;
+
+	@Autowired
+	SubjectGradeDao subjectGradeDao;
+
+	@Value("${gradebook.grades.storage:subject-tables}")
+	private String storage;
+
+	@Value("${gradebook.subjects.extra:}")
+	private String[] extraSubjects;
+
+	// in display order
+	private final Map<String, GradeSubject<?>> subjects = new LinkedHashMap<>();
+
+	@PostConstruct
+	void registerSubjects() {
+
+		register(new GradeSubject<>("math", "math_grade", MathGrade::new, mathGradeDao,
+				id -> mathGradeDao.deleteGradeById(id)));
+		register(new GradeSubject<>("science", "science_grade", ScienceGrade::new, scienceGradeDao,
+				id -> scienceGradeDao.deleteGradeById(id)));
+		register(new GradeSubject<>("history", "history_grade", HistoryGrade::new, historyGradeDao,
+				id -> historyGradeDao.deleteGradeById(id)));
+
+		for(String extraSubject : extraSubjects) {
+
+			String name = extraSubject.trim();
+
+			if(name.isEmpty()) { continue; }
+
+			if(!storage.equals("single-table")) {
+				throw new IllegalStateException("Subject '" + name 
+						+ "' has no table of its own, it needs gradebook.grades.storage=single-table");
+			}
+
+			register(new GradeSubject<>(name, "grade", grade -> new SubjectGrade(name, grade), subjectGradeDao,
+					id -> subjectGradeDao.deleteGradeById(id, name)));
+		}
+	}
+
+	private void register(GradeSubject<?> subject) {
+
+		if(!subject.getName().matches(SUBJECT_NAME_PATTERN)) {
+			throw new IllegalStateException("Invalid subject name '" + subject.getName() + "'");
+		}
+
+		if(subjects.putIfAbsent(subject.getName(), subject) != null) {
+			throw new IllegalStateException("Subject '" + subject.getName() + "' is registered twice");
+		}
+	}
+
+	// null when there is no such subject
+	public GradeSubject<?> find(String gradeType) {
+		return subjects.get(gradeType);
+	}
+
+	public boolean contains(String gradeType) {
+		return subjects.containsKey(gradeType);
+	}
+
+	public Collection<GradeSubject<?>> all() {
+		return Collections.unmodifiableCollection(subjects.values());
+	}
+
+	// the grade types, in display order
+	public Collection<String> names() {
+		return Collections.unmodifiableCollection(subjects.keySet());
+	}
+
+}
@@ -0,0 +1,417 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.github.leonardomvs.springmvc.models.GradebookAnalytics;
+import io.github.leonardomvs.springmvc.models.RankedStudent;
+import io.github.leonardomvs.springmvc.models.StudentGrades;
+import io.github.leonardomvs.springmvc.models.StudentRanking;
+import io.github.leonardomvs.springmvc.models.StudentRanking.Standing;
+import io.github.leonardomvs.springmvc.models.SubjectAnalytics;
+
+/*
+ * School-wide distributions, percentile ranks and top students. The gradebook is
+ * read in one pass of the export cursor into primitive columns, the grades and
+ * the per-student averages of every subject, without an entity per student or
+ * grade. The columns are then reduced on the fork/join pool: GradeDistribution
+ * for the statistics and histograms, Arrays.parallelSort for the percentiles.
+ * Every call reads the whole gradebook again.
+ */
+@Service
+public class GradebookAnalyticsService {
+
+	// nearest-rank grade percentiles in every report
+	private static final int[] PERCENTILES = { 10, 25, 50, 75, 90 };
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	GradeStore gradeStore;
+
+	@Autowired
+	GradeSubjectRegistry gradeSubjectRegistry;
+
+	@Value("${gradebook.analytics.fetch-size:1000}")
+	private int fetchSize;
+
+	@Value("${gradebook.analytics.max-top-students:100}")
+	private int maxTopStudents;
+
+	// the top list of every subject is capped at gradebook.analytics.max-top-students
+	public GradebookAnalytics analyze(int topStudents) {
+
+		int top = Math.max(0, Math.min(topStudents, maxTopStudents));
+
+		return readOnly(jdbc -> {
+
+			GradebookColumns columns = readGradebook(jdbc);
+
+			int[][] topIndexes = new int[columns.averages.length][];
+			TreeSet<Integer> topStudentIds = new TreeSet<>();
+
+			for(int column = 0; column < columns.averages.length; column++) {
+				topIndexes[column] = columns.averages[column].topIndexes(top);
+				for(int index : topIndexes[column]) {
+					topStudentIds.add(columns.averages[column].studentIds[index]);
+				}
+			}
+
+			// the names of the listed students only, with one query
+			Map<Integer, String[]> names = findNames(jdbc, topStudentIds);
+
+			Map<String, SubjectAnalytics> subjects = new LinkedHashMap<>();
+
+			for(String subject : columns.subjects) {
+				int column = columns.subjectIndex.get(subject);
+				subjects.put(subject, subjectAnalytics(columns.grades[column], columns.averages[column],
+						topIndexes[column], names));
+			}
+
+			int overall = columns.subjects.length;
+
+			return new GradebookAnalytics(columns.studentCount,
+					subjectAnalytics(columns.grades[overall], columns.averages[overall], topIndexes[overall], names),
+					Collections.unmodifiableMap(subjects));
+		});
+	}
+
+	// null when there is no student with that id
+	public StudentRanking studentRanking(int studentId) {
+
+		return readOnly(jdbc -> {
+
+			if(jdbc.queryForObject("SELECT COUNT(*) FROM student WHERE id = ?", Integer.class, studentId) == 0) {
+				return null;
+			}
+
+			GradebookColumns columns = readGradebook(jdbc);
+
+			Map<String, Standing> subjects = new LinkedHashMap<>();
+
+			for(String subject : columns.subjects) {
+				Standing standing = columns.averages[columns.subjectIndex.get(subject)].standing(studentId);
+				if(standing != null) {
+					subjects.put(subject, standing);
+				}
+			}
+
+			return new StudentRanking(studentId, columns.averages[columns.subjects.length].standing(studentId),
+					Collections.unmodifiableMap(subjects));
+		});
+	}
+
+	private <T> T readOnly(ReadOnlyWork<T> work) {
+
+		JdbcTemplate cursor = new JdbcTemplate(dataSource);
+		cursor.setFetchSize(fetchSize);
+
+		// PostgreSQL only honours the fetch size inside a transaction, otherwise it reads the whole result
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		return readOnly.execute(status -> work.run(cursor));
+	}
+
+	private GradebookColumns readGradebook(JdbcTemplate cursor) {
+
+		GradebookColumns columns = new GradebookColumns(gradeSubjectRegistry.names());
+
+		cursor.query(gradeStore.gradebookQuery(), rs -> {
+
+			int studentId = rs.getInt("student_id");
+
+			if(!columns.started || columns.currentStudent != studentId) {
+				columns.startStudent(studentId);
+			}
+
+			String gradeType = rs.getString("grade_type");
+
+			if(gradeType != null) {
+				columns.addGrade(gradeType, rs.getDouble("grade"));
+			}
+		});
+
+		columns.finishStudent();
+
+		return columns;
+	}
+
+	private Map<Integer, String[]> findNames(JdbcTemplate jdbc, TreeSet<Integer> studentIds) {
+
+		Map<Integer, String[]> names = new HashMap<>();
+
+		if(studentIds.isEmpty()) { return names; }
+
+		String placeholders = String.join(",", Collections.nCopies(studentIds.size(), "?"));
+
+		jdbc.query("SELECT id, firstname, lastname FROM student WHERE id IN (" + placeholders + ")",
+				rs -> {
+					names.put(rs.getInt("id"), new String[] { rs.getString("firstname"), rs.getString("lastname") });
+				}, studentIds.toArray());
+
+		return names;
+	}
+
+	private SubjectAnalytics subjectAnalytics(GradeColumn grades, AverageColumn averages, int[] topIndexes,
+			Map<Integer, String[]> names) {
+
+		List<RankedStudent> topStudents = new ArrayList<>(topIndexes.length);
+
+		for(int index : topIndexes) {
+			int studentId = averages.studentIds[index];
+			String[] name = names.getOrDefault(studentId, new String[2]);
+			Standing standing = averages.standingAt(index);
+			topStudents.add(new RankedStudent(studentId, name[0], name[1], standing.getAverage(), standing.getRank(),
+					standing.getPercentileRank()));
+		}
+
+		if(grades.size == 0) {
+			return new SubjectAnalytics(0, 0, null, null, null, null, Collections.emptyMap(),
+					new long[GradeDistribution.BUCKETS], Collections.unmodifiableList(topStudents));
+		}
+
+		GradeDistribution distribution = GradeDistribution.of(grades.values, grades.size);
+
+		double[] sorted = Arrays.copyOf(grades.values, grades.size);
+		Arrays.parallelSort(sorted);
+
+		Map<String, Double> percentiles = new LinkedHashMap<>();
+		for(int percentile : PERCENTILES) {
+			int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+			percentiles.put("p" + percentile, sorted[Math.max(rank, 1) - 1]);
+		}
+
+		return new SubjectAnalytics(distribution.getCount(), averages.size,
+				StudentGrades.roundGradePointAverage(distribution.getAverage()),
+				StudentGrades.roundGradePointAverage(distribution.getStandardDeviation()),
+				distribution.getMinimum(),
+				distribution.getMaximum(),
+				Collections.unmodifiableMap(percentiles),
+				distribution.getHistogram(),
+				Collections.unmodifiableList(topStudents));
+	}
+
+	private interface ReadOnlyWork<T> {
+
+		T run(JdbcTemplate cursor);
+
+	}
+
+	// Growable column of grades
+	private static final class GradeColumn {
+
+		private double[] values = new double[1024];
+
+		private int size;
+
+		private void add(double grade) {
+			if(size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = grade;
+		}
+	}
+
+	// One average per student with grades, in student id order like the cursor
+	private static final class AverageColumn {
+
+		private int[] studentIds = new int[256];
+
+		private double[] averages = new double[256];
+
+		private int size;
+
+		// ascending, for ranks and percentile ranks
+		private double[] sorted;
+
+		private void add(int studentId, double average) {
+			if(size == averages.length) {
+				studentIds = Arrays.copyOf(studentIds, size * 2);
+				averages = Arrays.copyOf(averages, size * 2);
+			}
+			studentIds[size] = studentId;
+			averages[size++] = average;
+		}
+
+		private double[] sorted() {
+			if(sorted == null) {
+				sorted = Arrays.copyOf(averages, size);
+				Arrays.parallelSort(sorted);
+			}
+			return sorted;
+		}
+
+		// null when the student has no grades here
+		private Standing standing(int studentId) {
+			int index = Arrays.binarySearch(studentIds, 0, size, studentId);
+			return index < 0 ? null : standingAt(index);
+		}
+
+		private Standing standingAt(int index) {
+
+			double average = averages[index];
+			double[] sorted = sorted();
+
+			int below = lowerBound(sorted, average);
+			int notAbove = upperBound(sorted, average);
+
+			double percentileRank = (below + 0.5 * (notAbove - below)) / size * 100;
+
+			return new Standing(StudentGrades.roundGradePointAverage(average), size - notAbove + 1,
+					StudentGrades.roundGradePointAverage(percentileRank), size);
+		}
+
+		// indexes of the best averages, best first, the lower student id first on a tie
+		private int[] topIndexes(int top) {
+
+			int[] best = new int[Math.min(top, size)];
+			int found = 0;
+
+			for(int index = 0; index < size; index++) {
+
+				// ids ascend, so a later student only gets in with a strictly better average
+				if(found == best.length && (found == 0 || averages[index] <= averages[best[found - 1]])) {
+					continue;
+				}
+
+				int position = found == best.length ? found - 1 : found++;
+
+				while(position > 0 && averages[best[position - 1]] < averages[index]) {
+					best[position] = best[position - 1];
+					position--;
+				}
+
+				best[position] = index;
+			}
+
+			return best;
+		}
+
+		private static int lowerBound(double[] sorted, double value) {
+			int low = 0;
+			int high = sorted.length;
+			while(low < high) {
+				int middle = (low + high) >>> 1;
+				if(sorted[middle] < value) { low = middle + 1; } else { high = middle; }
+			}
+			return low;
+		}
+
+		private static int upperBound(double[] sorted, double value) {
+			int low = 0;
+			int high = sorted.length;
+			while(low < high) {
+				int middle = (low + high) >>> 1;
+				if(sorted[middle] <= value) { low = middle + 1; } else { high = middle; }
+			}
+			return low;
+		}
+	}
+
+	// The cursor's state and the columns it fills, the last column is every grade together
+	private static final class GradebookColumns {
+
+		private final String[] subjects;
+
+		private final Map<String, Integer> subjectIndex = new HashMap<>();
+
+		private final GradeColumn[] grades;
+
+		private final AverageColumn[] averages;
+
+		private int studentCount;
+
+		private boolean started;
+
+		private int currentStudent;
+
+		// the current student's grades, per subject
+		private final double[] sums;
+
+		private final int[] counts;
+
+		private GradebookColumns(Iterable<String> subjectNames) {
+
+			List<String> names = new ArrayList<>();
+			for(String subject : subjectNames) {
+				subjectIndex.put(subject, names.size());
+				names.add(subject);
+			}
+
+			this.subjects = names.toArray(new String[0]);
+			this.grades = new GradeColumn[subjects.length + 1];
+			this.averages = new AverageColumn[subjects.length + 1];
+
+			for(int column = 0; column <= subjects.length; column++) {
+				grades[column] = new GradeColumn();
+				averages[column] = new AverageColumn();
+			}
+
+			this.sums = new double[subjects.length];
+			this.counts = new int[subjects.length];
+		}
+
+		private void startStudent(int studentId) {
+			finishStudent();
+			started = true;
+			currentStudent = studentId;
+			studentCount++;
+		}
+
+		// grades of a subject that is no longer configured are left out
+		private void addGrade(String gradeType, double grade) {
+
+			Integer column = subjectIndex.get(gradeType);
+
+			if(column == null) { return; }
+
+			grades[column].add(grade);
+			grades[subjects.length].add(grade);
+			sums[column] += grade;
+			counts[column]++;
+		}
+
+		private void finishStudent() {
+
+			if(!started) { return; }
+
+			double sum = 0;
+			int count = 0;
+
+			for(int column = 0; column < subjects.length; column++) {
+				if(counts[column] > 0) {
+					averages[column].add(currentStudent, sums[column] / counts[column]);
+					sum += sums[column];
+					count += counts[column];
+				}
+				sums[column] = 0;
+				counts[column] = 0;
+			}
+
+			if(count > 0) {
+				averages[subjects.length].add(currentStudent, sum / count);
+			}
+		}
+	}
+
+}
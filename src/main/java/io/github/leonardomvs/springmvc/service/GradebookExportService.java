@@ -0,0 +1,247 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.leonardomvs.springmvc.models.StudentGrades;
+
+/*
+ * Writes the whole gradebook to a stream. The rows are read through a forward-only
+ * JDBC cursor ordered by student, and only the grades of the current student are
+ * held in memory, so the table size does not matter.
+ */
+@Service
+public class GradebookExportService {
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	GradeStore gradeStore;
+
+	@Autowired
+	GradeSubjectRegistry gradeSubjectRegistry;
+
+	@Value("${gradebook.export.fetch-size:500}")
+	private int fetchSize;
+
+	public void exportCsv(Writer writer) throws IOException {
+
+		// the grades of every subject, then the averages of every subject
+		StringBuilder header = new StringBuilder("studentId,firstname,lastname,emailAddress");
+		for(GradeSubject<?> subject : gradeSubjectRegistry.all()) {
+			header.append(',').append(subject.getName()).append("Grades");
+		}
+		for(GradeSubject<?> subject : gradeSubjectRegistry.all()) {
+			header.append(',').append(subject.getModelAttribute());
+		}
+		writer.write(header.append('\n').toString());
+
+		export(student -> {
+			StringBuilder line = new StringBuilder();
+			line.append(student.id).append(',').append(csv(student.firstname)).append(',')
+					.append(csv(student.lastname)).append(',').append(csv(student.emailAddress));
+			for(List<Double> grades : student.gradesBySubject.values()) {
+				line.append(',').append(joinGrades(grades));
+			}
+			for(List<Double> grades : student.gradesBySubject.values()) {
+				line.append(',').append(csvAverage(grades));
+			}
+			writer.write(line.append('\n').toString());
+		});
+
+		writer.flush();
+	}
+
+	public void exportJson(OutputStream out) throws IOException {
+
+		try(JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+
+			// the caller owns the stream
+			json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+			json.writeStartArray();
+
+			export(student -> {
+				json.writeStartObject();
+				json.writeNumberField("studentId", student.id);
+				json.writeStringField("firstname", student.firstname);
+				json.writeStringField("lastname", student.lastname);
+				json.writeStringField("emailAddress", student.emailAddress);
+				for(Map.Entry<String, List<Double>> subject : student.gradesBySubject.entrySet()) {
+					writeSubject(json, subject.getKey(), subject.getValue());
+				}
+				json.writeEndObject();
+			});
+
+			json.writeEndArray();
+		}
+	}
+
+	private void export(StudentWriter studentWriter) throws IOException {
+
+		JdbcTemplate cursor = new JdbcTemplate(dataSource);
+		cursor.setFetchSize(fetchSize);
+
+		// PostgreSQL only honours the fetch size inside a transaction, otherwise it reads the whole result
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+
+		try {
+			readOnly.executeWithoutResult(status -> {
+
+				ExportedStudent student = new ExportedStudent(gradeSubjectRegistry);
+
+				cursor.query(gradeStore.gradebookQuery(), rs -> {
+
+					int studentId = rs.getInt("student_id");
+
+					if(!student.started || student.id != studentId) {
+						write(studentWriter, student);
+						student.reset(studentId, rs.getString("firstname"), rs.getString("lastname"),
+								rs.getString("email_address"));
+					}
+
+					String gradeType = rs.getString("grade_type");
+
+					if(gradeType != null) {
+						student.addGrade(gradeType, rs.getDouble("grade"));
+					}
+				});
+
+				write(studentWriter, student);
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private void write(StudentWriter studentWriter, ExportedStudent student) {
+
+		if(!student.started) { return; }
+
+		try {
+			studentWriter.write(student);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeSubject(JsonGenerator json, String gradeType, List<Double> grades) throws IOException {
+
+		json.writeArrayFieldStart(gradeType + "Grades");
+		for(double grade : grades) {
+			json.writeNumber(grade);
+		}
+		json.writeEndArray();
+
+		if(grades.isEmpty()) {
+			json.writeNullField(gradeType + "Average");
+		} else {
+			json.writeNumberField(gradeType + "Average", average(grades));
+		}
+	}
+
+	private static double average(List<Double> grades) {
+		double sum = 0;
+		for(double grade : grades) {
+			sum += grade;
+		}
+		return StudentGrades.roundGradePointAverage(sum, grades.size());
+	}
+
+	private static String csvAverage(List<Double> grades) {
+		return grades.isEmpty() ? "" : String.valueOf(average(grades));
+	}
+
+	private static String joinGrades(List<Double> grades) {
+		StringBuilder joined = new StringBuilder();
+		for(double grade : grades) {
+			if(joined.length() > 0) {
+				joined.append(';');
+			}
+			joined.append(grade);
+		}
+		return joined.toString();
+	}
+
+	private static String csv(String value) {
+		if(value == null) { return ""; }
+		if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private interface StudentWriter {
+
+		void write(ExportedStudent student) throws IOException;
+
+	}
+
+	// The student currently read from the cursor, reused for every student
+	private static final class ExportedStudent {
+
+		private boolean started;
+
+		private int id;
+
+		private String firstname;
+
+		private String lastname;
+
+		private String emailAddress;
+
+		// a list per subject, in display order
+		private final Map<String, List<Double>> gradesBySubject = new LinkedHashMap<>();
+
+		private ExportedStudent(GradeSubjectRegistry gradeSubjectRegistry) {
+			for(GradeSubject<?> subject : gradeSubjectRegistry.all()) {
+				gradesBySubject.put(subject.getName(), new ArrayList<>());
+			}
+		}
+
+		private void reset(int id, String firstname, String lastname, String emailAddress) {
+			this.started = true;
+			this.id = id;
+			this.firstname = firstname;
+			this.lastname = lastname;
+			this.emailAddress = emailAddress;
+			gradesBySubject.values().forEach(List::clear);
+		}
+
+		// grades of a subject that is no longer configured are left out
+		private void addGrade(String gradeType, double grade) {
+			List<Double> grades = gradesBySubject.get(gradeType);
+			if(grades != null) {
+				grades.add(grade);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.github.leonardomvs.springmvc.models.GradeRejection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*
+ * Gradebook meters besides the timers: rejected grades by reason and where they
+ * came from, and how many grades a student detail page loads. The meters are
+ * registered once, recording is a map lookup and an increment.
+ */
+@Component
+public class GradebookMetrics {
+
+	public static final String GRADE_REJECTIONS = "gradebook.grade.rejections";
+
+	public static final String STUDENT_GRADES_LOADED = "gradebook.student.grades.loaded";
+
+	private final Map<GradeRejection, Counter> formRejections = new EnumMap<>(GradeRejection.class);
+
+	private final Map<GradeRejection, Counter> importRejections = new EnumMap<>(GradeRejection.class);
+
+	private final DistributionSummary studentGradesLoaded;
+
+	@Autowired
+	public GradebookMetrics(MeterRegistry meterRegistry) {
+
+		for(GradeRejection reason : GradeRejection.values()) {
+			formRejections.put(reason, rejectionCounter(meterRegistry, reason, "form"));
+			importRejections.put(reason, rejectionCounter(meterRegistry, reason, "import"));
+		}
+
+		this.studentGradesLoaded = DistributionSummary.builder(STUDENT_GRADES_LOADED)
+				.description("Grades read from the database for one student detail page")
+				.baseUnit("grades")
+				.register(meterRegistry);
+	}
+
+	private static Counter rejectionCounter(MeterRegistry meterRegistry, GradeRejection reason, String source) {
+		return Counter.builder(GRADE_REJECTIONS)
+				.description("Grades that were not saved")
+				.tag("reason", reason.name().toLowerCase())
+				.tag("source", source)
+				.register(meterRegistry);
+	}
+
+	// a grade posted through the form
+	public void gradeRejected(GradeRejection reason) {
+		formRejections.get(reason).increment();
+	}
+
+	// a row of a bulk import
+	public void importRowRejected(GradeRejection reason) {
+		importRejections.get(reason).increment();
+	}
+
+	public void studentGradesLoaded(int grades) {
+		studentGradesLoaded.record(grades);
+	}
+
+}
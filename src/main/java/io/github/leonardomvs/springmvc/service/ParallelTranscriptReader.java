@@ -0,0 +1,187 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import io.github.leonardomvs.springmvc.ParallelFetchConfiguration;
+import io.github.leonardomvs.springmvc.repository.StudentTranscriptRow;
+
+/*
+ * The rows of StudentDao.findTranscriptByStudentId, read with one query per
+ * subject table instead of one UNION ALL. The queries run at the same time on the
+ * grade query threads, outside of the caller's transaction, so the subjects are
+ * not read from a single snapshot. Their connections come from the grade query
+ * pool: a request thread waiting for its queries keeps a connection of the main
+ * pool, and if the queries needed that pool as well, a burst of requests could
+ * hold every connection while their queries wait.
+ */
+@Component
+@ConditionalOnProperty(name = "gradebook.student-information.fetch", havingValue = "parallel")
+public class ParallelTranscriptReader {
+
+	@Autowired
+	@Qualifier(ParallelFetchConfiguration.GRADE_QUERY_DATA_SOURCE)
+	DataSource gradeQueryDataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	GradeSubjectRegistry gradeSubjectRegistry;
+
+	@Autowired
+	@Qualifier(ParallelFetchConfiguration.GRADE_QUERY_EXECUTOR)
+	Executor gradeQueryExecutor;
+
+	@PostConstruct
+	void createJdbcTemplate() {
+		jdbcTemplate = new JdbcTemplate(gradeQueryDataSource);
+	}
+
+	public List<StudentTranscriptRow> findTranscript(int studentId) {
+
+		CompletableFuture<List<TranscriptRow>> student = CompletableFuture.supplyAsync(() -> jdbcTemplate.query(
+				"SELECT id, firstname, lastname, email_address, version FROM student WHERE id = ?",
+				(rs, rowNum) -> new TranscriptRow(rs.getInt("id"), rs.getString("firstname"), rs.getString("lastname"),
+						rs.getString("email_address"), rs.getLong("version"), null, null, null),
+				studentId), gradeQueryExecutor);
+
+		Map<String, CompletableFuture<List<GradeRow>>> gradesBySubject = new LinkedHashMap<>();
+
+		for(GradeSubject<?> subject : gradeSubjectRegistry.all()) {
+			gradesBySubject.put(subject.getName(), CompletableFuture.supplyAsync(() -> jdbcTemplate.query(
+					"SELECT id, grade FROM " + subject.getTable() + " WHERE student_id = ? ORDER BY id",
+					(rs, rowNum) -> new GradeRow(rs.getInt("id"), rs.getDouble("grade")),
+					studentId), gradeQueryExecutor));
+		}
+
+		List<TranscriptRow> students = join(student);
+
+		if(students.isEmpty()) { return List.of(); }
+
+		TranscriptRow studentRow = students.get(0);
+		List<StudentTranscriptRow> transcript = new ArrayList<>();
+
+		gradesBySubject.forEach((subject, grades) -> {
+			for(GradeRow grade : join(grades)) {
+				transcript.add(new TranscriptRow(studentRow.studentId, studentRow.firstname, studentRow.lastname,
+						studentRow.emailAddress, studentRow.version, subject, grade.id, grade.grade));
+			}
+		});
+
+		// like the LEFT JOIN, a student without grades is one row with empty grade columns
+		if(transcript.isEmpty()) {
+			transcript.add(studentRow);
+		}
+
+		return transcript;
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static final class GradeRow {
+
+		private final int id;
+
+		private final double grade;
+
+		private GradeRow(int id, double grade) {
+			this.id = id;
+			this.grade = grade;
+		}
+	}
+
+	private static final class TranscriptRow implements StudentTranscriptRow {
+
+		private final int studentId;
+
+		private final String firstname;
+
+		private final String lastname;
+
+		private final String emailAddress;
+
+		private final long version;
+
+		private final String gradeType;
+
+		private final Integer gradeId;
+
+		private final Double grade;
+
+		private TranscriptRow(int studentId, String firstname, String lastname, String emailAddress, long version,
+				String gradeType, Integer gradeId, Double grade) {
+			this.studentId = studentId;
+			this.firstname = firstname;
+			this.lastname = lastname;
+			this.emailAddress = emailAddress;
+			this.version = version;
+			this.gradeType = gradeType;
+			this.gradeId = gradeId;
+			this.grade = grade;
+		}
+
+		@Override
+		public int getStudentId() {
+			return studentId;
+		}
+
+		@Override
+		public String getFirstname() {
+			return firstname;
+		}
+
+		@Override
+		public String getLastname() {
+			return lastname;
+		}
+
+		@Override
+		public String getEmailAddress() {
+			return emailAddress;
+		}
+
+		@Override
+		public long getVersion() {
+			return version;
+		}
+
+		@Override
+		public String getGradeType() {
+			return gradeType;
+		}
+
+		@Override
+		public Integer getGradeId() {
+			return gradeId;
+		}
+
+		@Override
+		public Double getGrade() {
+			return grade;
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import io.github.leonardomvs.springmvc.models.Grade;
+import io.github.leonardomvs.springmvc.models.SubjectGrade;
+import io.github.leonardomvs.springmvc.repository.GradeAggregateRow;
+import io.github.leonardomvs.springmvc.repository.GradeStatisticsDao;
+import io.github.leonardomvs.springmvc.repository.StudentTranscriptRow;
+import io.github.leonardomvs.springmvc.repository.SubjectGradeDao;
+
+// Every subject in the grade table, see db/migrate-to-single-grade-table.sql to move existing grades
+@Component
+@Transactional
+@ConditionalOnProperty(name = "gradebook.grades.storage", havingValue = "single-table")
+public class SingleTableGradeStore implements GradeStore {
+
+	@Autowired
+	SubjectGradeDao subjectGradeDao;
+
+	@Autowired
+	GradeStatisticsDao gradeStatisticsDao;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Override
+	public Grade saveGrade(int studentId, String gradeType, double grade) {
+		SubjectGrade subjectGrade = new SubjectGrade(gradeType, grade);
+		subjectGrade.setStudentId(studentId);
+		return subjectGradeDao.save(subjectGrade);
+	}
+
+	@Override
+	public Grade findGrade(int id, String gradeType) {
+		return subjectGradeDao.findById(id)
+				.filter(grade -> grade.getSubject().equals(gradeType))
+				.orElse(null);
+	}
+
+	@Override
+	public int deleteGrade(int id, String gradeType) {
+		return subjectGradeDao.deleteGradeById(id, gradeType);
+	}
+
+	@Override
+	public int deleteByStudentIds(Collection<Integer> studentIds) {
+		return subjectGradeDao.deleteByStudentIdIn(studentIds);
+	}
+
+	@Override
+	public void insertGrades(Map<String, List<Object[]>> gradesByType) {
+
+		List<Object[]> rows = new ArrayList<>();
+
+		gradesByType.forEach((gradeType, grades) -> {
+			for(Object[] grade : grades) {
+				rows.add(new Object[] { grade[0], gradeType, grade[1] });
+			}
+		});
+
+		jdbcTemplate.batchUpdate("INSERT INTO grade (student_id, subject, grade) VALUES (?, ?, ?)", rows);
+	}
+
+	@Override
+	public List<StudentTranscriptRow> findTranscript(int studentId) {
+		return subjectGradeDao.findTranscriptByStudentId(studentId);
+	}
+
+	@Override
+	public List<GradeAggregateRow> findGradeAggregates(int studentId) {
+		return subjectGradeDao.findGradeAggregatesByStudentId(studentId);
+	}
+
+	@Override
+	public String gradebookQuery() {
+		return "SELECT s.id AS student_id, s.firstname, s.lastname, s.email_address, g.subject AS grade_type, g.grade "
+				+ "FROM student s LEFT JOIN grade g ON g.student_id = s.id "
+				+ "ORDER BY s.id, g.id";
+	}
+
+	@Override
+	public int rebuildStatistics(Collection<Integer> studentIds) {
+		return gradeStatisticsDao.rebuildByStudentIdInFromGradeTable(studentIds);
+	}
+
+	@Override
+	public int rebuildStatistics(int studentId) {
+		return gradeStatisticsDao.rebuildByStudentIdFromGradeTable(studentId);
+	}
+
+}
@@ -1,201 +1,384 @@
 package io.github.leonardomvs.springmvc.service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.TreeSet;
 
 import javax.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.ui.Model;
 
 import io.github.leonardomvs.springmvc.models.CollegeStudent;
 import io.github.leonardomvs.springmvc.models.Grade;
+import io.github.leonardomvs.springmvc.models.GradeRejection;
+import io.github.leonardomvs.springmvc.models.GradeStatistics;
 import io.github.leonardomvs.springmvc.models.GradebookCollegeStudent;
-import io.github.leonardomvs.springmvc.models.HistoryGrade;
-import io.github.leonardomvs.springmvc.models.MathGrade;
-import io.github.leonardomvs.springmvc.models.ScienceGrade;
+import io.github.leonardomvs.springmvc.models.StudentGradeSnapshot;
+import io.github.leonardomvs.springmvc.models.StudentGradeSnapshot.SubjectGrades;
 import io.github.leonardomvs.springmvc.models.StudentGrades;
-import io.github.leonardomvs.springmvc.repository.HistoryGradeDao;
-import io.github.leonardomvs.springmvc.repository.MathGradeDao;
-import io.github.leonardomvs.springmvc.repository.ScienceGradeDao;
+import io.github.leonardomvs.springmvc.models.StudentPage;
+import io.github.leonardomvs.springmvc.repository.GradeAggregateRow;
 import io.github.leonardomvs.springmvc.repository.StudentDao;
+import io.github.leonardomvs.springmvc.repository.StudentTranscriptRow;
+import io.micrometer.core.annotation.Timed;
 
 @Service
 @Transactional
 public class StudentAndGradeService {
 
+	// one timer, tagged with the method
+	private static final String SERVICE_TIMER = "gradebook.service";
+	
+	// keeps IN lists well below the bind parameter limits of the databases
+	private static final int MAX_IDS_PER_STATEMENT = 1000;
+	
 	@Autowired
 	StudentDao studentDao;
 	
 	@Autowired
-	MathGradeDao mathGradeDao;
+	GradeStore gradeStore;
 	
 	@Autowired
-	HistoryGradeDao historyGradeDao;
+	GradeStatisticsService gradeStatisticsService;
 	
 	@Autowired
-	ScienceGradeDao scienceGradeDao;
-			
-	@Autowired
-	@Qualifier("mathGrades")
-	private MathGrade mathGrade;
+	StudentInformationCache studentInformationCache;
 	
 	@Autowired
-	@Qualifier("scienceGrades")
-	private ScienceGrade scienceGrade;
+	GradeSubjectRegistry gradeSubjectRegistry;
 	
 	@Autowired
-	@Qualifier("historyGrades")
-	private HistoryGrade historyGrade;
+	GradebookMetrics gradebookMetrics;
 	
-	@Autowired
-	private StudentGrades studentGrades;
+	@Value("${gradebook.averages.source:grades}")
+	private GradeAverageSource averageSource;
+	
+	@Value("${gradebook.page.default-size:50}")
+	private int defaultPageSize;
+	
+	@Value("${gradebook.page.max-size:500}")
+	private int maxPageSize;
 	
-	public void createStudent(String firstName, String lastName, String emailAddress) {
+	@Timed(SERVICE_TIMER)
+	public CollegeStudent createStudent(String firstName, String lastName, String emailAddress) {
 		CollegeStudent student = new CollegeStudent(firstName, lastName, emailAddress);
 		student.setId(0);
 		studentDao.save(student);
+		// the new id may have been looked up (and cached as missing) before
+		studentInformationCache.evict(student.getId());
+		return student;
 	}
 
+	// Key-only count query, the entity is never loaded
+	@Timed(SERVICE_TIMER)
 	public boolean checkIfStudentIsNotNull(int id) {
-		Optional<CollegeStudent> student = studentDao.findById(id);
-		if(student.isPresent()) {
-			return true;
-		} else {
-			return false;
-		}
+		return studentDao.existsById(id);
 	}
 
-	public void deleteStudent(int id) {
-		if(checkIfStudentIsNotNull(id)) {
-			studentDao.deleteById(id);
+	@Timed(SERVICE_TIMER)
+	public boolean deleteStudent(int id) {
+		return deleteStudents(List.of(id)) == 1;
+	}
+	
+	// Removes the students and all of their grades with one DELETE per table and batch of ids,
+	// returns how many students were deleted
+	@Timed(SERVICE_TIMER)
+	public int deleteStudents(Collection<Integer> ids) {
+		
+		// a blank request parameter (ids=1&ids=) binds to null
+		TreeSet<Integer> uniqueIds = new TreeSet<>();
+		for(Integer id : ids) {
+			if(id != null) { uniqueIds.add(id); }
+		}
+		
+		List<Integer> sortedIds = new ArrayList<>(uniqueIds);
+		int deleted = 0;
+		
+		for(int from = 0; from < sortedIds.size(); from += MAX_IDS_PER_STATEMENT) {
+			
+			List<Integer> batch = sortedIds.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, sortedIds.size()));
+			
+			// locks out concurrent grade writes for these students, unknown ids are dropped
+			List<Integer> existingIds = studentDao.lockAllById(batch);
+			
+			if(existingIds.isEmpty()) { continue; }
 			
-			mathGradeDao.deleteByStudentId(id);
-			historyGradeDao.deleteByStudentId(id);
-			scienceGradeDao.deleteByStudentId(id);
+			gradeStore.deleteByStudentIds(existingIds);
 			
-		}			
+			gradeStatisticsService.deleteStudents(existingIds);
+			
+			deleted += studentDao.deleteByIdIn(existingIds);
+			
+			for(int id : existingIds) {
+				studentInformationCache.evict(id);
+			}
+		}
+		
+		return deleted;
 	}
 
+	@Timed(SERVICE_TIMER)
 	public Iterable<CollegeStudent> getGradeBook() {
 		return studentDao.findAll();
 	}
+	
+	@Timed(SERVICE_TIMER)
+	public StudentPage getGradeBookPage(Integer after, Integer before, Integer size) {
+		
+		int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+		
+		// one extra row tells whether there is another page in that direction
+		Pageable limit = PageRequest.of(0, pageSize + 1);
+		
+		if(before != null) {
+			List<CollegeStudent> students = new ArrayList<>(studentDao.findByIdLessThanOrderByIdDesc(before, limit));
+			boolean hasPrevious = students.size() > pageSize;
+			if(hasPrevious) {
+				students.remove(pageSize);
+			}
+			Collections.reverse(students);
+			return new StudentPage(students, pageSize, hasPrevious, true);
+		}
+		
+		List<CollegeStudent> students = new ArrayList<>(studentDao.findByIdGreaterThanOrderByIdAsc(
+				after == null ? Integer.MIN_VALUE : after, limit));
+		boolean hasNext = students.size() > pageSize;
+		if(hasNext) {
+			students.remove(pageSize);
+		}
+		return new StudentPage(students, pageSize, after != null, hasNext);
+	}
 
+	@Timed(SERVICE_TIMER)
 	public boolean createGrade(double grade, int studentId, String gradeType) {
 		
-		if(!checkIfStudentIsNotNull(studentId)) { return false; }
+		GradeRejection rejection = validateGrade(grade, gradeType);
 		
-		if(grade < 0 || grade > 100) { return false; }
-		
-		if(gradeType.equals("math")) {
-			mathGrade.setId(0);
-			mathGrade.setGrade(grade);
-			mathGrade.setStudentId(studentId);
-			mathGradeDao.save(mathGrade);
-			return true;
+		if(rejection != null) {
+			gradebookMetrics.gradeRejected(rejection);
+			return false;
 		}
-		if(gradeType.equals("science")) {
-			scienceGrade.setId(0);
-			scienceGrade.setGrade(grade);
-			scienceGrade.setStudentId(studentId);
-			scienceGradeDao.save(scienceGrade);
-			return true;
+		
+		// existence check, per-student lock for the statistics update and new transcript version in one round trip
+		if(studentDao.incrementVersion(studentId) == 0) {
+			gradebookMetrics.gradeRejected(GradeRejection.UNKNOWN_STUDENT);
+			return false;
 		}
-		if(gradeType.equals("history")) {
-			historyGrade.setId(0);
-			historyGrade.setGrade(grade);
-			historyGrade.setStudentId(studentId);
-			historyGradeDao.save(historyGrade);
-			return true;
-		}		
 		
-		return false;
+		gradeStore.saveGrade(studentId, gradeType, grade);
+		
+		gradeStatisticsService.recordGrade(studentId, gradeType, grade);
+		
+		studentInformationCache.evict(studentId);
+		
+		return true;
+	}
+	
+	// null when the grade can be saved for an existing student, not timed as imports call it for every row
+	public GradeRejection validateGrade(double grade, String gradeType) {
+		
+		// written this way round so NaN is rejected too
+		if(!(grade >= 0 && grade <= 100)) { return GradeRejection.GRADE_OUT_OF_RANGE; }
+		
+		if(!isGradeType(gradeType)) { return GradeRejection.UNKNOWN_GRADE_TYPE; }
+		
+		return null;
+	}
+	
+	private boolean isGradeType(String gradeType) {
+		return gradeSubjectRegistry.contains(gradeType);
 	}
 
+	@Timed(SERVICE_TIMER)
 	public Integer deleteGrade(int id, String gradeType) {
-		int studentId = 0;
-		if(gradeType.equals("math")) {
-			Optional<MathGrade> grade = mathGradeDao.findById(id);
-			if(grade.isPresent()) {
-				studentId = grade.get().getStudentId();
-				mathGradeDao.deleteById(id);
-			}			
-		}
-		if(gradeType.equals("science")) {
-			Optional<ScienceGrade> grade = scienceGradeDao.findById(id);
-			if(grade.isPresent()) {
-				studentId = grade.get().getStudentId();
-				scienceGradeDao.deleteById(id);
-			}
-		}
-		if(gradeType.equals("history")) {
-			Optional<HistoryGrade> grade = historyGradeDao.findById(id);
-			if(grade.isPresent()) {
-				studentId = grade.get().getStudentId();
-				historyGradeDao.deleteById(id);
-			}
-		}		
+		
+		Grade grade = gradeStore.findGrade(id, gradeType);
+		
+		if(grade == null) { return 0; }
+		
+		int studentId = grade.getStudentId();
+		
+		studentDao.incrementVersion(studentId);
+		
+		// the grade was read before the lock, a concurrent delete of it may have got there first
+		if(gradeStore.deleteGrade(id, gradeType) == 0) { return 0; }
+		
+		gradeStatisticsService.removeGrade(studentId, gradeType, grade.getGrade());
+		studentInformationCache.evict(studentId);
+		
 		return studentId;
 	}
 
+	@Timed(SERVICE_TIMER)
 	public GradebookCollegeStudent studentInformation(int studentId) {
+		return studentInformationCache.getStudentInformation(studentId, () -> loadStudentInformation(studentId));
+	}
+	
+	// null unless the student information is cached, a hit does not take a connection from the pool
+	@Timed(SERVICE_TIMER)
+	@Transactional(Transactional.TxType.SUPPORTS)
+	public GradebookCollegeStudent findCachedStudentInformation(int studentId) {
+		return studentInformationCache.findStudentInformation(studentId);
+	}
+	
+	private GradebookCollegeStudent loadStudentInformation(int studentId) {
+		
+		List<StudentTranscriptRow> transcript = gradeStore.findTranscript(studentId);
 		
-		Optional<CollegeStudent> student = studentDao.findById(studentId);
+		if(transcript.isEmpty()) { return null; }
 		
-		if(!student.isPresent()) { return null; }
+		Map<String, List<Grade>> gradesBySubject = new LinkedHashMap<>();
+		int gradesLoaded = 0;
+		
+		for(GradeSubject<?> subject : gradeSubjectRegistry.all()) {
+			gradesBySubject.put(subject.getName(), new ArrayList<>());
+		}
+		
+		for(StudentTranscriptRow row : transcript) {
+			
+			if(row.getGradeId() == null) { continue; }
+			
+			GradeSubject<?> subject = gradeSubjectRegistry.find(row.getGradeType());
+			
+			// grades of a subject that is no longer configured are left out
+			if(subject == null) { continue; }
+			
+			gradesBySubject.get(subject.getName()).add(toGrade(subject.newGrade(row.getGrade()), row));
+			gradesLoaded++;
+		}
 		
-		Iterable<MathGrade> mathGrades = mathGradeDao.findGradeByStudentId(studentId);
-		Iterable<ScienceGrade> scienceGrades = scienceGradeDao.findGradeByStudentId(studentId);
-		Iterable<HistoryGrade> historyGrades = historyGradeDao.findGradeByStudentId(studentId);
+		gradebookMetrics.studentGradesLoaded(gradesLoaded);
 		
-		List<Grade> mathGradesList = new ArrayList<>();
-		mathGrades.forEach(mathGradesList::add);
+		// a fresh holder per call, exposing read-only lists
+		StudentGrades studentGrades = new StudentGrades();
+		gradesBySubject.forEach((subject, grades) -> 
+				studentGrades.setGradeResults(subject, Collections.unmodifiableList(grades)));
 		
-		List<Grade> scienceGradesList = new ArrayList<>();
-		scienceGrades.forEach(scienceGradesList::add);
+		StudentGradeSnapshot gradeSnapshot = StudentGradeSnapshot.of(gradesBySubject);
 		
-		List<Grade> historyGradesList = new ArrayList<>();
-		historyGrades.forEach(historyGradesList::add);
+		StudentTranscriptRow student = transcript.get(0);
 		
-		studentGrades.setMathGradeResults(mathGradesList);
-		studentGrades.setScienceGradeResults(scienceGradesList);
-		studentGrades.setHistoryGradeResults(historyGradesList);
+		GradebookCollegeStudent gradebookCollegeStudent = new GradebookCollegeStudent(student.getStudentId(), 
+				student.getFirstname(), 
+				student.getLastname(),
+				student.getEmailAddress(),
+				studentGrades,
+				gradeSnapshot);
 		
-		GradebookCollegeStudent gradebookCollegeStudent = new GradebookCollegeStudent(student.get().getId(), 
-				student.get().getFirstname(), 
-				student.get().getLastname(),
-				student.get().getEmailAddress(),
-				studentGrades);
+		gradebookCollegeStudent.setVersion(student.getVersion());
 		
 		return gradebookCollegeStudent;
 	}
 	
+	private Grade toGrade(Grade grade, StudentTranscriptRow row) {
+		grade.setId(row.getGradeId());
+		grade.setStudentId(row.getStudentId());
+		return grade;
+	}
+	
+	@Timed(SERVICE_TIMER)
 	public void configureStudentInformationModel(int studentId, Model m) {
-		
-		GradebookCollegeStudent studentEntity = studentInformation(studentId);
+		configureStudentInformationModel(studentInformation(studentId), m);
+	}
+	
+	@Timed(SERVICE_TIMER)
+	public void configureStudentInformationModel(GradebookCollegeStudent studentEntity, Model m) {
 		
 		m.addAttribute("student", studentEntity);
+		m.addAttribute("subjects", gradeSubjectRegistry.all());
+		
+		if(averageSource == GradeAverageSource.GRADES) {
+			
+			StudentGradeSnapshot gradeSnapshot = studentEntity.getGradeSnapshot();
+			
+			for(GradeSubject<?> subject : gradeSubjectRegistry.all()) {
+				addAverageToModel(m, gradeSnapshot.getSubjectGrades(subject.getName()), subject.getModelAttribute());
+			}
+			return;
+		}
 		
-		addAverageToModel(m, studentEntity, studentEntity.getStudentGrades().getMathGradeResults(), "mathAverage");
-		addAverageToModel(m, studentEntity, studentEntity.getStudentGrades().getScienceGradeResults(), "scienceAverage");
-		addAverageToModel(m, studentEntity, studentEntity.getStudentGrades().getHistoryGradeResults(), "historyAverage");
+		// averages that cost a query are cached next to the student information
+		int studentId = studentEntity.getId();
 		
+		m.addAllAttributes(studentInformationCache.getStudentAverages(studentId, 
+				() -> averageSource == GradeAverageSource.AGGREGATE 
+						? aggregateAverages(studentId) 
+						: statisticsAverages(studentId)));
+		
+	}
+
+	@Timed(SERVICE_TIMER)
+	public void configureStudentAveragesModel(int studentId, Model m) {
+		m.addAllAttributes(aggregateAverages(studentId));
 	}
 
-	private void addAverageToModel(Model m, GradebookCollegeStudent studentEntity, List<Grade> listOfGradeResults, String attributeName) {
+	@Timed(SERVICE_TIMER)
+	public void configureStudentStatisticsModel(int studentId, Model m) {
+		m.addAllAttributes(statisticsAverages(studentId));
+	}
+	
+	private Map<String, Object> aggregateAverages(int studentId) {
+		
+		Map<String, Object> averages = notAvailableAverages();
+		
+		for(GradeAggregateRow aggregate : gradeStore.findGradeAggregates(studentId)) {
+			
+			GradeSubject<?> subject = gradeSubjectRegistry.find(aggregate.getGradeType());
+			
+			if(subject == null || aggregate.getGradeCount() == 0) { continue; }
+			
+			averages.put(subject.getModelAttribute(), StudentGrades.roundGradePointAverage(aggregate.getAverage()));
+		}
+		
+		return Collections.unmodifiableMap(averages);
+	}
+	
+	private Map<String, Object> statisticsAverages(int studentId) {
 		
-		if(listOfGradeResults == null || listOfGradeResults.isEmpty()) {
+		Map<String, Object> averages = notAvailableAverages();
+		
+		for(GradeStatistics statistics : gradeStatisticsService.findGradeStatistics(studentId)) {
+			
+			GradeSubject<?> subject = gradeSubjectRegistry.find(statistics.getGradeType());
+			
+			if(subject == null) { continue; }
+			
+			averages.put(subject.getModelAttribute(), StudentGrades.roundGradePointAverage(statistics.getAverage()));
+		}
+		
+		return Collections.unmodifiableMap(averages);
+	}
+	
+	// every subject starts without an average, in display order
+	private Map<String, Object> notAvailableAverages() {
+		
+		Map<String, Object> averages = new LinkedHashMap<>();
+		
+		for(GradeSubject<?> subject : gradeSubjectRegistry.all()) {
+			averages.put(subject.getModelAttribute(), "N/A");
+		}
+		
+		return averages;
+	}
+
+	private void addAverageToModel(Model m, SubjectGrades subjectGrades, String attributeName) {
+		
+		if(subjectGrades.isEmpty()) {
 			m.addAttribute(attributeName, "N/A");
 			return; 
 		}
 		
-		double average = studentEntity.getStudentGrades().findGradePointAverage(listOfGradeResults);
-		
-		m.addAttribute(attributeName, average);
+		m.addAttribute(attributeName, subjectGrades.getAverage());
 		
 	}
 	
-}
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+import io.github.leonardomvs.springmvc.models.Grade;
+import io.github.leonardomvs.springmvc.models.GradebookCollegeStudent;
+import io.github.leonardomvs.springmvc.models.StudentGradeSnapshot.SubjectGrades;
+import io.github.leonardomvs.springmvc.models.StudentGrades;
+import io.github.leonardomvs.springmvc.models.StudentInformationSnapshot;
+
+/*
+ * Read-through cache for the student detail page, keyed by student id. Evictions
+ * are deferred until the surrounding transaction commits so a concurrent reader
+ * cannot put the pre-commit state back. The student information is kept as an
+ * immutable snapshot and every read gets a student object of its own.
+ */
+@Component
+public class StudentInformationCache {
+
+	public static final String STUDENT_INFORMATION = "studentInformation";
+
+	public static final String STUDENT_AVERAGES = "studentAverages";
+
+	private final Cache studentInformation;
+
+	private final Cache studentAverages;
+
+	private final GradeSubjectRegistry gradeSubjectRegistry;
+
+	@Autowired
+	public StudentInformationCache(CacheManager cacheManager, GradeSubjectRegistry gradeSubjectRegistry) {
+		this.studentInformation = new TransactionAwareCacheDecorator(cacheManager.getCache(STUDENT_INFORMATION));
+		this.studentAverages = new TransactionAwareCacheDecorator(cacheManager.getCache(STUDENT_AVERAGES));
+		this.gradeSubjectRegistry = gradeSubjectRegistry;
+	}
+
+	public GradebookCollegeStudent getStudentInformation(int studentId, Callable<GradebookCollegeStudent> loader) {
+		return toStudent(studentInformation.get(studentId, () -> StudentInformationSnapshot.of(loader.call())));
+	}
+
+	// null when nothing is cached for the student, or a missing student is
+	public GradebookCollegeStudent findStudentInformation(int studentId) {
+		return toStudent(studentInformation.get(studentId, StudentInformationSnapshot.class));
+	}
+
+	public Map<String, Object> getStudentAverages(int studentId, Callable<Map<String, Object>> loader) {
+		return studentAverages.get(studentId, loader);
+	}
+
+	public void evict(int studentId) {
+		studentInformation.evict(studentId);
+		studentAverages.evict(studentId);
+	}
+
+	// grade objects and lists are created per call, the grade snapshot is immutable and shared
+	private GradebookCollegeStudent toStudent(StudentInformationSnapshot snapshot) {
+
+		if(snapshot == null) { return null; }
+
+		StudentGrades studentGrades = new StudentGrades();
+
+		for(GradeSubject<?> subject : gradeSubjectRegistry.all()) {
+
+			SubjectGrades subjectGrades = snapshot.getGradeSnapshot().getSubjectGrades(subject.getName());
+			List<Grade> grades = new ArrayList<>(subjectGrades.size());
+
+			for(int i = 0; i < subjectGrades.size(); i++) {
+				Grade grade = subject.newGrade(subjectGrades.getGrade(i));
+				grade.setId(subjectGrades.getId(i));
+				grade.setStudentId(snapshot.getId());
+				grades.add(grade);
+			}
+
+			studentGrades.setGradeResults(subject.getName(), Collections.unmodifiableList(grades));
+		}
+
+		GradebookCollegeStudent student = new GradebookCollegeStudent(snapshot.getId(),
+				snapshot.getFirstname(),
+				snapshot.getLastname(),
+				snapshot.getEmailAddress(),
+				studentGrades,
+				snapshot.getGradeSnapshot());
+
+		student.setVersion(snapshot.getVersion());
+
+		return student;
+	}
+
+}
@@ -0,0 +1,120 @@
+package io.github.leonardomvs.springmvc.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import io.github.leonardomvs.springmvc.models.Grade;
+import io.github.leonardomvs.springmvc.repository.GradeAggregateRow;
+import io.github.leonardomvs.springmvc.repository.GradeStatisticsDao;
+import io.github.leonardomvs.springmvc.repository.HistoryGradeDao;
+import io.github.leonardomvs.springmvc.repository.MathGradeDao;
+import io.github.leonardomvs.springmvc.repository.ScienceGradeDao;
+import io.github.leonardomvs.springmvc.repository.StudentDao;
+import io.github.leonardomvs.springmvc.repository.StudentTranscriptRow;
+
+// One table per subject, the original layout
+@Component
+@Transactional
+@ConditionalOnProperty(name = "gradebook.grades.storage", havingValue = "subject-tables", matchIfMissing = true)
+public class SubjectTablesGradeStore implements GradeStore {
+
+	@Autowired
+	StudentDao studentDao;
+
+	@Autowired
+	GradeSubjectRegistry gradeSubjectRegistry;
+
+	// only with gradebook.student-information.fetch=parallel
+	@Autowired(required = false)
+	ParallelTranscriptReader parallelTranscriptReader;
+
+	@Autowired
+	MathGradeDao mathGradeDao;
+
+	@Autowired
+	ScienceGradeDao scienceGradeDao;
+
+	@Autowired
+	HistoryGradeDao historyGradeDao;
+
+	@Autowired
+	GradeStatisticsDao gradeStatisticsDao;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Override
+	public Grade saveGrade(int studentId, String gradeType, double grade) {
+		return gradeSubjectRegistry.find(gradeType).save(studentId, grade);
+	}
+
+	@Override
+	public Grade findGrade(int id, String gradeType) {
+		GradeSubject<?> subject = gradeSubjectRegistry.find(gradeType);
+		return subject == null ? null : subject.findById(id);
+	}
+
+	@Override
+	public int deleteGrade(int id, String gradeType) {
+		return gradeSubjectRegistry.find(gradeType).deleteById(id);
+	}
+
+	@Override
+	public int deleteByStudentIds(Collection<Integer> studentIds) {
+		return mathGradeDao.deleteByStudentIdIn(studentIds)
+				+ scienceGradeDao.deleteByStudentIdIn(studentIds)
+				+ historyGradeDao.deleteByStudentIdIn(studentIds);
+	}
+
+	@Override
+	public void insertGrades(Map<String, List<Object[]>> gradesByType) {
+
+		gradesByType.forEach((gradeType, grades) -> {
+			String table = gradeSubjectRegistry.find(gradeType).getTable();
+			jdbcTemplate.batchUpdate("INSERT INTO " + table + " (student_id, grade) VALUES (?, ?)", grades);
+		});
+	}
+
+	@Override
+	public List<StudentTranscriptRow> findTranscript(int studentId) {
+		if(parallelTranscriptReader != null) {
+			return parallelTranscriptReader.findTranscript(studentId);
+		}
+		return studentDao.findTranscriptByStudentId(studentId);
+	}
+
+	@Override
+	public List<GradeAggregateRow> findGradeAggregates(int studentId) {
+		return studentDao.findGradeAggregatesByStudentId(studentId);
+	}
+
+	@Override
+	public String gradebookQuery() {
+		return "SELECT s.id AS student_id, s.firstname, s.lastname, s.email_address, g.grade_type, g.grade "
+				+ "FROM student s LEFT JOIN ("
+				+ "SELECT CAST('math' AS VARCHAR(16)) AS grade_type, id, student_id, grade FROM math_grade "
+				+ "UNION ALL SELECT CAST('science' AS VARCHAR(16)), id, student_id, grade FROM science_grade "
+				+ "UNION ALL SELECT CAST('history' AS VARCHAR(16)), id, student_id, grade FROM history_grade"
+				+ ") g ON g.student_id = s.id "
+				+ "ORDER BY s.id, g.id";
+	}
+
+	@Override
+	public int rebuildStatistics(Collection<Integer> studentIds) {
+		return gradeStatisticsDao.rebuildByStudentIdIn(studentIds);
+	}
+
+	@Override
+	public int rebuildStatistics(int studentId) {
+		return gradeStatisticsDao.rebuildByStudentId(studentId);
+	}
+
+}
@@ -0,0 +1,9 @@
+-- Copies math_grade, science_grade and history_grade into the grade table read with
+-- gradebook.grades.storage=single-table. Run it once while the application is stopped,
+-- then switch the property. Grades get new ids since every subject table numbered from 1.
+-- The grade table and its index come from the Flyway migrations. The subject tables
+-- are left untouched, drop them once the switch is verified.
+
+INSERT INTO grade (student_id, subject, grade) SELECT student_id, 'math', grade FROM math_grade ORDER BY id;
+INSERT INTO grade (student_id, subject, grade) SELECT student_id, 'science', grade FROM science_grade ORDER BY id;
+INSERT INTO grade (student_id, subject, grade) SELECT student_id, 'history', grade FROM history_grade ORDER BY id;
@@ -0,0 +1,45 @@
+-- Tables as Hibernate created them with ddl-auto=update. IF NOT EXISTS lets this run
+-- over a database that already has some of them, see spring.flyway.baseline-version.
+
+CREATE TABLE IF NOT EXISTS student (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    firstname VARCHAR(255),
+    lastname VARCHAR(255),
+    email_address VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS math_grade (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id INTEGER NOT NULL,
+    grade DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS science_grade (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id INTEGER NOT NULL,
+    grade DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS history_grade (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id INTEGER NOT NULL,
+    grade DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS grade (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id INTEGER NOT NULL,
+    subject VARCHAR(16),
+    grade DOUBLE PRECISION NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS grade_statistics (
+    student_id INTEGER NOT NULL,
+    grade_type VARCHAR(16) NOT NULL,
+    grade_count BIGINT NOT NULL,
+    grade_sum DOUBLE PRECISION NOT NULL,
+    min_grade DOUBLE PRECISION,
+    max_grade DOUBLE PRECISION,
+    sum_of_squares DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (student_id, grade_type)
+);
@@ -0,0 +1,9 @@
+-- Every grade read and bulk delete filters on student_id, and students are looked up by email.
+-- The unique constraint fails on databases that already hold the same email twice, merge those first.
+
+CREATE INDEX IF NOT EXISTS math_grade_student_id_idx ON math_grade (student_id);
+CREATE INDEX IF NOT EXISTS science_grade_student_id_idx ON science_grade (student_id);
+CREATE INDEX IF NOT EXISTS history_grade_student_id_idx ON history_grade (student_id);
+CREATE INDEX IF NOT EXISTS grade_student_id_subject_idx ON grade (student_id, subject);
+
+ALTER TABLE student ADD CONSTRAINT student_email_address_key UNIQUE (email_address);
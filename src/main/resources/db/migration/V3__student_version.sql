@@ -0,0 +1,3 @@
+-- Bumped by every grade write for the student, the JSON API derives the ETag of a transcript from it.
+
+ALTER TABLE student ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,201 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.leonardomvs.springmvc.models.GradeImportError;
+import io.github.leonardomvs.springmvc.models.GradeImportReport;
+import io.github.leonardomvs.springmvc.models.GradeRejection;
+import io.github.leonardomvs.springmvc.models.GradeStatistics;
+import io.github.leonardomvs.springmvc.service.GradeImportService;
+import io.github.leonardomvs.springmvc.service.GradeStatisticsService;
+
+@TestPropertySource(locations = "/application-test.properties", properties = "gradebook.import.chunk-size=2")
+@SpringBootTest
+public class GradeImportServiceTest {
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	GradeImportService gradeImportService;
+
+	@Autowired
+	GradeStatisticsService gradeStatisticsService;
+
+	@Value("${sql.script.create.student}")
+	private String sqlAddStudent;
+
+	@Value("${sql.script.create.math.grade}")
+	private String sqlAddMathGrade;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.math.grade}")
+	private String sqlDeleteMathGrade;
+
+	@Value("${sql.script.delete.science.grade}")
+	private String sqlDeleteScienceGrade;
+
+	@Value("${sql.script.delete.history.grade}")
+	private String sqlDeleteHistoryGrade;
+
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
+
+	@BeforeEach
+	public void setupDatabase() {
+		jdbc.execute(sqlAddStudent);
+		jdbc.execute(sqlAddMathGrade);
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (2,'Chad', 'Darby', 'chad.darby@luv2code_school.com')");
+		gradeStatisticsService.rebuild(1);
+	}
+
+	@Test
+	public void importCsvReportsEveryBadRow() throws Exception {
+
+		String csv = "studentId,gradeType,grade\n"
+				+ "1,math,80.00\n"
+				+ "2,history,70.00\n"
+				+ "\n"
+				+ "1,math,101\n"
+				+ "1,literature,90.00\n"
+				+ "99,science,90.00\n"
+				+ "1,math\n"
+				+ "one,math,90.00\n"
+				+ "2,history,90.00\n"
+				+ "1,math,60.00\n";
+
+		GradeImportReport report = gradeImportService.importCsv(new StringReader(csv));
+
+		assertEquals(4, report.getAccepted());
+		assertEquals(5, report.getRejected());
+
+		Map<Long, GradeRejection> rejections = rejectionsByRow(report);
+
+		assertEquals(GradeRejection.GRADE_OUT_OF_RANGE, rejections.get(5L));
+		assertEquals(GradeRejection.UNKNOWN_GRADE_TYPE, rejections.get(6L));
+		assertEquals(GradeRejection.UNKNOWN_STUDENT, rejections.get(7L));
+		assertEquals(GradeRejection.MALFORMED_ROW, rejections.get(8L));
+		assertEquals(GradeRejection.MALFORMED_ROW, rejections.get(9L));
+
+		assertEquals(3, countGrades("math_grade", 1));
+		assertEquals(2, countGrades("history_grade", 2));
+		assertEquals(0, countGrades("science_grade", 99));
+
+		Map<String, GradeStatistics> statistics = statisticsByType(1);
+
+		assertEquals(3, statistics.get("math").getGradeCount());
+		assertEquals(240.00, statistics.get("math").getGradeSum());
+		assertEquals(60.00, statistics.get("math").getMinGrade());
+		assertEquals(160.00, statisticsByType(2).get("history").getGradeSum());
+
+	}
+
+	@Test
+	public void importJsonArrayAndLines() throws Exception {
+
+		String array = "[{\"studentId\": 1, \"gradeType\": \"science\", \"grade\": 75.5},"
+				+ " {\"studentId\": 2, \"gradeType\": \"math\", \"grade\": 88},"
+				+ " {\"studentId\": \"2\", \"gradeType\": \"math\", \"grade\": 88},"
+				+ " {\"studentId\": 2, \"gradeType\": \"math\", \"grade\": -1}]";
+
+		GradeImportReport report = gradeImportService.importJson(toStream(array));
+
+		assertEquals(2, report.getAccepted());
+		assertEquals(GradeRejection.MALFORMED_ROW, rejectionsByRow(report).get(3L));
+		assertEquals(GradeRejection.GRADE_OUT_OF_RANGE, rejectionsByRow(report).get(4L));
+
+		String lines = "{\"studentId\": 2, \"gradeType\": \"history\", \"grade\": 90}\n"
+				+ "{\"studentId\": 2, \"gradeType\": \"history\", \"grade\": 80}\n"
+				+ "{\"studentId\": 2, \"gradeType\"";
+
+		report = gradeImportService.importJson(toStream(lines));
+
+		assertEquals(2, report.getAccepted());
+		assertEquals(1, report.getRejected(), "The truncated object is reported");
+
+		assertEquals(1, countGrades("science_grade", 1));
+		assertEquals(1, countGrades("math_grade", 2));
+		assertEquals(2, countGrades("history_grade", 2));
+		assertEquals(2, statisticsByType(2).get("history").getGradeCount());
+
+	}
+
+	@Test
+	public void failedChunkIsReportedAndTheNextOneStillRuns() throws Exception {
+
+		// a database error for the second row only, it rolls back the first row of its chunk with it
+		jdbc.execute("alter table math_grade add constraint no_fifty_five check (grade <> 55.00)");
+
+		String csv = "1,math,80.00\n"
+				+ "1,math,55.00\n"
+				+ "2,history,70.00\n"
+				+ "99,science,90.00\n";
+
+		GradeImportReport report = gradeImportService.importCsv(new StringReader(csv));
+
+		assertEquals(1, report.getAccepted());
+		assertEquals(3, report.getRejected());
+
+		Map<Long, GradeRejection> rejections = rejectionsByRow(report);
+
+		assertEquals(GradeRejection.SAVE_FAILED, rejections.get(1L));
+		assertEquals(GradeRejection.SAVE_FAILED, rejections.get(2L));
+		assertEquals(GradeRejection.UNKNOWN_STUDENT, rejections.get(4L));
+
+		assertEquals(1, countGrades("math_grade", 1));
+		assertEquals(1, statisticsByType(1).get("math").getGradeCount());
+		assertEquals(1, countGrades("history_grade", 2));
+
+	}
+
+	private Map<Long, GradeRejection> rejectionsByRow(GradeImportReport report) {
+		Map<Long, GradeRejection> rejections = new HashMap<>();
+		for(GradeImportError error : report.getErrors()) {
+			rejections.put(error.getRow(), error.getReason());
+		}
+		return rejections;
+	}
+
+	private Map<String, GradeStatistics> statisticsByType(int studentId) {
+		Map<String, GradeStatistics> statistics = new HashMap<>();
+		gradeStatisticsService.findGradeStatistics(studentId)
+				.forEach(summary -> statistics.put(summary.getGradeType(), summary));
+		return statistics;
+	}
+
+	private int countGrades(String table, int studentId) {
+		return jdbc.queryForObject("select count(*) from " + table + " where student_id = ?", Integer.class, studentId);
+	}
+
+	private ByteArrayInputStream toStream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute("alter table math_grade drop constraint if exists no_fifty_five");
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteMathGrade);
+		jdbc.execute(sqlDeleteScienceGrade);
+		jdbc.execute(sqlDeleteHistoryGrade);
+		jdbc.execute(sqlDeleteGradeStatistics);
+	}
+
+}
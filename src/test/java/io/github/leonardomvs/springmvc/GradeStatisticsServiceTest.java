@@ -0,0 +1,235 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+
+import io.github.leonardomvs.springmvc.models.GradeStatistics;
+import io.github.leonardomvs.springmvc.repository.GradeAggregateRow;
+import io.github.leonardomvs.springmvc.repository.StudentDao;
+import io.github.leonardomvs.springmvc.service.GradeStatisticsService;
+import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+
+@TestPropertySource(locations = "/application-test.properties", properties = "gradebook.statistics.rebuild-batch-size=1")
+@SpringBootTest
+public class GradeStatisticsServiceTest {
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	StudentDao studentDao;
+
+	@Autowired
+	StudentAndGradeService studentService;
+
+	@Autowired
+	GradeStatisticsService gradeStatisticsService;
+
+	@Value("${sql.script.create.student}")
+	private String sqlAddStudent;
+
+	@Value("${sql.script.create.math.grade}")
+	private String sqlAddMathGrade;
+
+	@Value("${sql.script.create.science.grade}")
+	private String sqlAddScienceGrade;
+
+	@Value("${sql.script.create.history.grade}")
+	private String sqlAddHistoryGrade;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.math.grade}")
+	private String sqlDeleteMathGrade;
+
+	@Value("${sql.script.delete.science.grade}")
+	private String sqlDeleteScienceGrade;
+
+	@Value("${sql.script.delete.history.grade}")
+	private String sqlDeleteHistoryGrade;
+
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
+
+	@BeforeEach
+	public void setupDatabase() {
+		jdbc.execute(sqlAddStudent);
+		jdbc.execute(sqlAddMathGrade);
+		jdbc.execute(sqlAddScienceGrade);
+		jdbc.execute(sqlAddHistoryGrade);
+		gradeStatisticsService.rebuild(1);
+	}
+
+	@Test
+	public void rebuildMatchesGradeTables() {
+
+		jdbc.execute("insert into math_grade(id,student_id,grade) values (2,1,50.00)");
+		jdbc.execute("insert into math_grade(id,student_id,grade) values (3,1,75.50)");
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (2,'Chad','Darby','chad.darby@luv2code_school.com')");
+		jdbc.execute("insert into science_grade(id,student_id,grade) values (2,2,60.00)");
+
+		assertEquals(4, gradeStatisticsService.rebuildAll(), "One batch per student");
+
+		assertConsistentWithGradeTables(1);
+		assertConsistentWithGradeTables(2);
+
+		GradeStatistics math = statisticsByType(1).get("math");
+
+		assertEquals(3, math.getGradeCount());
+		assertEquals(225.50, math.getGradeSum());
+		assertEquals(50.00, math.getMinGrade());
+		assertEquals(100.00, math.getMaxGrade());
+
+	}
+
+	@Test
+	public void createGradeUpdatesStatistics() {
+
+		assertTrue(studentService.createGrade(80.00, 1, "math"));
+		assertTrue(studentService.createGrade(40.00, 1, "math"));
+		assertTrue(studentService.createGrade(60.00, 1, "history"));
+
+		assertConsistentWithGradeTables(1);
+
+		GradeStatistics math = statisticsByType(1).get("math");
+
+		assertEquals(3, math.getGradeCount());
+		assertEquals(40.00, math.getMinGrade());
+		assertEquals(100.00, math.getMaxGrade());
+		assertEquals(18000.0 / 3 - Math.pow(220.0 / 3, 2), math.getVariance(), 0.0001);
+
+	}
+
+	@Test
+	public void deleteGradeRecomputesBounds() {
+
+		assertTrue(studentService.createGrade(80.00, 1, "math"));
+		assertTrue(studentService.createGrade(40.00, 1, "math"));
+
+		int lowestGradeId = jdbc.queryForObject("select id from math_grade where grade = 40.00", Integer.class);
+
+		assertEquals(1, studentService.deleteGrade(lowestGradeId, "math"));
+		assertEquals(1, studentService.deleteGrade(1, "science"));
+
+		assertConsistentWithGradeTables(1);
+
+		Map<String, GradeStatistics> statistics = statisticsByType(1);
+
+		assertEquals(80.00, statistics.get("math").getMinGrade());
+		assertTrue(!statistics.containsKey("science"), "Empty subjects have no summary row");
+
+	}
+
+	@Test
+	public void concurrentDeletesOfOneGradeRemoveItOnce() throws Exception {
+
+		assertTrue(studentService.createGrade(80.00, 1, "math"));
+
+		int gradeId = jdbc.queryForObject("select id from math_grade where grade = 80.00", Integer.class);
+
+		ExecutorService deletes = Executors.newFixedThreadPool(2);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			Callable<Integer> delete = () -> {
+				start.await();
+				return studentService.deleteGrade(gradeId, "math");
+			};
+			Future<Integer> first = deletes.submit(delete);
+			Future<Integer> second = deletes.submit(delete);
+			start.countDown();
+
+			assertEquals(1, first.get(10, TimeUnit.SECONDS) + second.get(10, TimeUnit.SECONDS),
+					"Only one of the deletes finds the grade");
+		} finally {
+			deletes.shutdownNow();
+		}
+
+		assertConsistentWithGradeTables(1);
+		assertEquals(1, statisticsByType(1).get("math").getGradeCount());
+
+	}
+
+	@Test
+	public void deleteStudentRemovesStatistics() {
+
+		assertTrue(studentService.createGrade(80.00, 1, "math"));
+
+		studentService.deleteStudent(1);
+
+		assertTrue(gradeStatisticsService.findGradeStatistics(1).isEmpty());
+
+	}
+
+	@Test
+	public void statisticsAveragesModel() {
+
+		assertTrue(studentService.createGrade(80.50, 1, "math"));
+
+		Model model = new ExtendedModelMap();
+
+		studentService.configureStudentStatisticsModel(1, model);
+
+		assertEquals(90.25, model.getAttribute("mathAverage"));
+		assertEquals(100.0, model.getAttribute("scienceAverage"));
+		assertEquals(100.0, model.getAttribute("historyAverage"));
+
+	}
+
+	private Map<String, GradeStatistics> statisticsByType(int studentId) {
+		Map<String, GradeStatistics> statistics = new HashMap<>();
+		gradeStatisticsService.findGradeStatistics(studentId)
+				.forEach(summary -> statistics.put(summary.getGradeType(), summary));
+		return statistics;
+	}
+
+	private void assertConsistentWithGradeTables(int studentId) {
+
+		Map<String, GradeStatistics> statistics = statisticsByType(studentId);
+		List<GradeAggregateRow> aggregates = studentDao.findGradeAggregatesByStudentId(studentId);
+
+		for(GradeAggregateRow aggregate : aggregates) {
+			GradeStatistics summary = statistics.get(aggregate.getGradeType());
+			if(aggregate.getGradeCount() == 0) {
+				assertTrue(summary == null, "No summary expected for " + aggregate.getGradeType());
+				continue;
+			}
+			assertEquals(aggregate.getGradeCount(), summary.getGradeCount(), aggregate.getGradeType() + " count");
+			assertEquals(aggregate.getAverage(), summary.getAverage(), 0.0001, aggregate.getGradeType() + " average");
+			assertEquals(aggregate.getMinimum(), summary.getMinGrade(), aggregate.getGradeType() + " min");
+			assertEquals(aggregate.getMaximum(), summary.getMaxGrade(), aggregate.getGradeType() + " max");
+		}
+
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteMathGrade);
+		jdbc.execute(sqlDeleteScienceGrade);
+		jdbc.execute(sqlDeleteHistoryGrade);
+		jdbc.execute(sqlDeleteGradeStatistics);
+	}
+
+}
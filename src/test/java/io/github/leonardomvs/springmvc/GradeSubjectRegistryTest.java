@@ -0,0 +1,156 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+
+import io.github.leonardomvs.springmvc.models.GradeRejection;
+import io.github.leonardomvs.springmvc.service.GradeSubject;
+import io.github.leonardomvs.springmvc.service.GradeSubjectRegistry;
+import io.github.leonardomvs.springmvc.service.GradebookExportService;
+import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+
+@TestPropertySource(locations = "/application-test.properties",
+		properties = { "gradebook.grades.storage=single-table", "gradebook.subjects.extra=art" })
+@AutoConfigureMockMvc
+@SpringBootTest
+public class GradeSubjectRegistryTest {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	GradeSubjectRegistry gradeSubjectRegistry;
+
+	@Autowired
+	StudentAndGradeService studentService;
+
+	@Autowired
+	GradebookExportService gradebookExportService;
+
+	@Value("${sql.script.create.student}")
+	private String sqlAddStudent;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
+
+	@BeforeEach
+	public void setupDatabase() {
+		jdbc.execute(sqlAddStudent);
+	}
+
+	@Test
+	public void configuredSubjectsInDisplayOrder() {
+
+		List<String> names = new ArrayList<>();
+		for(GradeSubject<?> subject : gradeSubjectRegistry.all()) {
+			names.add(subject.getName());
+		}
+
+		assertEquals(List.of("math", "science", "history", "art"), names);
+		assertEquals("artAverage", gradeSubjectRegistry.find("art").getModelAttribute());
+		assertTrue(gradeSubjectRegistry.contains("history"));
+		assertFalse(gradeSubjectRegistry.contains("literature"));
+		assertNull(gradeSubjectRegistry.find("literature"));
+
+		assertNull(studentService.validateGrade(80.00, "art"));
+		assertEquals(GradeRejection.UNKNOWN_GRADE_TYPE, studentService.validateGrade(80.00, "literature"));
+
+	}
+
+	@Test
+	public void extraSubjectIsStoredAndAveraged() throws Exception {
+
+		assertTrue(studentService.createGrade(70.00, 1, "art"));
+		assertTrue(studentService.createGrade(80.00, 1, "art"));
+
+		assertEquals(2, studentService.studentInformation(1).getGradeSnapshot().getSubjectGrades("art").size());
+
+		Model model = new ExtendedModelMap();
+
+		studentService.configureStudentInformationModel(1, model);
+
+		assertEquals(75.0, model.getAttribute("artAverage"));
+		assertEquals("N/A", model.getAttribute("mathAverage"));
+
+		studentService.configureStudentAveragesModel(1, model);
+
+		assertEquals(75.0, model.getAttribute("artAverage"));
+		assertEquals("N/A", model.getAttribute("scienceAverage"));
+
+		StringWriter export = new StringWriter();
+
+		gradebookExportService.exportCsv(export);
+
+		String[] lines = export.toString().split("\n");
+
+		assertEquals("studentId,firstname,lastname,emailAddress,"
+				+ "mathGrades,scienceGrades,historyGrades,artGrades,"
+				+ "mathAverage,scienceAverage,historyAverage,artAverage", lines[0]);
+		assertEquals("1,Eric,Roby,eric.roby@luv2code_school.com,,,,70.0;80.0,,,,75.0", lines[1]);
+
+	}
+
+	@Test
+	public void studentInformationPageShowsExtraSubject() throws Exception {
+
+		assertTrue(studentService.createGrade(70.00, 1, "art"));
+
+		String page = mockMvc.perform(MockMvcRequestBuilders.get("/studentInformation/{id}", 1))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertTrue(page.contains("Art Assignments"));
+		assertTrue(page.contains("id=\"artGrade\""), "The add grade form of the extra subject");
+		assertTrue(page.contains("<span>70.0</span>"));
+
+	}
+
+	@Test
+	public void extraSubjectNeedsSingleTableStorage() {
+
+		GradeSubjectRegistry registry = new GradeSubjectRegistry();
+		ReflectionTestUtils.setField(registry, "storage", "subject-tables");
+		ReflectionTestUtils.setField(registry, "extraSubjects", new String[] { "art" });
+
+		assertThrows(IllegalStateException.class, () -> ReflectionTestUtils.invokeMethod(registry, "registerSubjects"));
+
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteGradeStatistics);
+		jdbc.execute("DELETE FROM grade");
+	}
+
+}
@@ -0,0 +1,184 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.github.leonardomvs.springmvc.models.GradebookAnalytics;
+import io.github.leonardomvs.springmvc.models.RankedStudent;
+import io.github.leonardomvs.springmvc.models.StudentRanking;
+import io.github.leonardomvs.springmvc.models.SubjectAnalytics;
+import io.github.leonardomvs.springmvc.service.GradebookAnalyticsService;
+
+@TestPropertySource(locations = "/application-test.properties", properties = "gradebook.analytics.max-top-students=2")
+@AutoConfigureMockMvc
+@SpringBootTest
+public class GradebookAnalyticsServiceTest {
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	GradebookAnalyticsService analyticsService;
+
+	@Value("${sql.script.create.student}")
+	private String sqlAddStudent;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.math.grade}")
+	private String sqlDeleteMathGrade;
+
+	@Value("${sql.script.delete.science.grade}")
+	private String sqlDeleteScienceGrade;
+
+	@Value("${sql.script.delete.history.grade}")
+	private String sqlDeleteHistoryGrade;
+
+	@BeforeEach
+	public void setupDatabase() {
+		jdbc.execute(sqlAddStudent);
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (2,'Chad', 'Darby', 'chad.darby@luv2code_school.com')");
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (3,'Student', 'Three', 'student.three@luv2code_school.com')");
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (4,'Student', 'Four', 'student.four@luv2code_school.com')");
+		jdbc.execute("insert into math_grade(student_id,grade) values (1,100.00),(1,90.00),(2,70.00),(3,95.00)");
+		jdbc.execute("insert into science_grade(student_id,grade) values (1,80.00),(3,80.00)");
+		jdbc.execute("insert into history_grade(student_id,grade) values (2,60.00)");
+	}
+
+	@Test
+	public void subjectDistributions() {
+
+		GradebookAnalytics analytics = analyticsService.analyze(10);
+
+		assertEquals(4, analytics.getStudentCount());
+		assertEquals(List.of("math", "science", "history"), List.copyOf(analytics.getSubjects().keySet()));
+
+		SubjectAnalytics math = analytics.getSubjects().get("math");
+
+		assertEquals(4, math.getGradeCount());
+		assertEquals(3, math.getStudentCount());
+		assertEquals(88.75, math.getAverage());
+		assertEquals(70.0, math.getMinimum());
+		assertEquals(100.0, math.getMaximum());
+		assertEquals(Map.of("p10", 70.0, "p25", 70.0, "p50", 90.0, "p75", 95.0, "p90", 100.0), math.getPercentiles());
+		// 100 is counted with the nineties
+		assertArrayEquals(new long[] { 0, 0, 0, 0, 0, 0, 0, 1, 0, 3 }, math.getHistogram());
+
+		SubjectAnalytics overall = analytics.getOverall();
+
+		assertEquals(7, overall.getGradeCount());
+		assertEquals(3, overall.getStudentCount(), "A student without grades is not ranked");
+
+	}
+
+	@Test
+	public void topStudentsShareRanksOnTies() {
+
+		GradebookAnalytics analytics = analyticsService.analyze(10);
+
+		List<RankedStudent> math = analytics.getSubjects().get("math").getTopStudents();
+
+		assertEquals(2, math.size(), "Capped at gradebook.analytics.max-top-students");
+		assertEquals(1, math.get(0).getStudentId());
+		assertEquals("Eric", math.get(0).getFirstname());
+		assertEquals(95.0, math.get(0).getAverage());
+		assertEquals(3, math.get(1).getStudentId());
+		assertEquals(1, math.get(1).getRank());
+		assertEquals(66.67, math.get(1).getPercentileRank());
+
+		List<RankedStudent> overall = analytics.getOverall().getTopStudents();
+
+		assertEquals(1, overall.get(0).getStudentId());
+		assertEquals(90.0, overall.get(0).getAverage());
+		assertEquals(3, overall.get(1).getStudentId());
+		assertEquals(2, overall.get(1).getRank());
+
+	}
+
+	@Test
+	public void emptySubject() {
+
+		jdbc.execute(sqlDeleteHistoryGrade);
+
+		SubjectAnalytics history = analyticsService.analyze(10).getSubjects().get("history");
+
+		assertEquals(0, history.getGradeCount());
+		assertNull(history.getAverage());
+		assertTrue(history.getPercentiles().isEmpty());
+		assertTrue(history.getTopStudents().isEmpty());
+
+	}
+
+	@Test
+	public void studentRanking() {
+
+		StudentRanking ranking = analyticsService.studentRanking(2);
+
+		assertEquals(List.of("math", "history"), List.copyOf(ranking.getSubjects().keySet()));
+		assertEquals(3, ranking.getSubjects().get("math").getRank());
+		assertEquals(16.67, ranking.getSubjects().get("math").getPercentileRank());
+		assertEquals(1, ranking.getSubjects().get("history").getRank());
+		assertEquals(50.0, ranking.getSubjects().get("history").getPercentileRank());
+		assertEquals(65.0, ranking.getOverall().getAverage());
+		assertEquals(3, ranking.getOverall().getRank());
+
+		StudentRanking withoutGrades = analyticsService.studentRanking(4);
+
+		assertNull(withoutGrades.getOverall());
+		assertTrue(withoutGrades.getSubjects().isEmpty());
+
+		assertNull(analyticsService.studentRanking(0));
+
+	}
+
+	@Test
+	public void analyticsHttpRequests() throws Exception {
+
+		mockMvc.perform(get("/api/analytics").param("top", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.studentCount").value(4))
+				.andExpect(jsonPath("$.subjects.science.average").value(80.0))
+				.andExpect(jsonPath("$.overall.topStudents.length()").value(1))
+				.andExpect(jsonPath("$.overall.topStudents[0].lastname").value("Roby"));
+
+		mockMvc.perform(get("/api/analytics/students/{id}", 3))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.subjects.science.percentileRank").value(50.0));
+
+		mockMvc.perform(get("/api/analytics/students/{id}", 0))
+				.andExpect(status().isNotFound());
+
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteMathGrade);
+		jdbc.execute(sqlDeleteScienceGrade);
+		jdbc.execute(sqlDeleteHistoryGrade);
+	}
+
+}
@@ -0,0 +1,213 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.leonardomvs.springmvc.models.CollegeStudent;
+import io.github.leonardomvs.springmvc.models.GradeRequest;
+import io.github.leonardomvs.springmvc.service.StudentInformationCache;
+
+@TestPropertySource(locations = "/application-test.properties", properties = "spring.cache.type=caffeine")
+@AutoConfigureMockMvc
+@SpringBootTest
+public class GradebookApiControllerTest {
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Value("${sql.script.create.student}")
+	private String sqlAddStudent;
+
+	@Value("${sql.script.create.math.grade}")
+	private String sqlAddMathGrade;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.math.grade}")
+	private String sqlDeleteMathGrade;
+
+	@Value("${sql.script.delete.science.grade}")
+	private String sqlDeleteScienceGrade;
+
+	@Value("${sql.script.delete.history.grade}")
+	private String sqlDeleteHistoryGrade;
+
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
+
+	@BeforeEach
+	public void setupDatabase() {
+		jdbc.execute(sqlAddStudent);
+		jdbc.execute(sqlAddMathGrade);
+	}
+
+	@Test
+	public void getStudents() throws Exception {
+
+		mockMvc.perform(get("/api/students"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.students.length()").value(1))
+				.andExpect(jsonPath("$.students[0].emailAddress").value("eric.roby@luv2code_school.com"))
+				.andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+	}
+
+	@Test
+	public void createAndDeleteStudent() throws Exception {
+
+		String body = objectMapper.writeValueAsString(new CollegeStudent("Chad", "Darby", "chad.darby@luv2code_school.com"));
+
+		String location = mockMvc.perform(post("/api/students").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.firstname").value("Chad"))
+				.andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+		mockMvc.perform(get(location))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.subjects.math.grades.length()").value(0))
+				.andExpect(jsonPath("$.subjects.math.average").doesNotExist());
+
+		mockMvc.perform(delete(location)).andExpect(status().isNoContent());
+
+		mockMvc.perform(get(location)).andExpect(status().isNotFound());
+		mockMvc.perform(delete(location)).andExpect(status().isNotFound());
+
+	}
+
+	@Test
+	public void createStudentWithDuplicateEmail() throws Exception {
+
+		String body = objectMapper.writeValueAsString(new CollegeStudent("Other", "Student", "eric.roby@luv2code_school.com"));
+
+		mockMvc.perform(post("/api/students").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isConflict());
+
+		assertEquals(1, jdbc.queryForObject("select count(*) from student", Integer.class));
+
+	}
+
+	@Test
+	public void studentInformationNotModifiedWithoutQueries() throws Exception {
+
+		String etag = mockMvc.perform(get("/api/students/{id}", 1))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1-0\""))
+				.andExpect(jsonPath("$.version").value(0))
+				.andExpect(jsonPath("$.subjects.math.grades[0].grade").value(100.0))
+				.andExpect(jsonPath("$.subjects.math.average").value(100.0))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mockMvc.perform(get("/api/students/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		assertEquals(0, statistics.getPrepareStatementCount(), "A 304 is answered from the cache");
+
+	}
+
+	@Test
+	public void gradeWritesChangeTheEtag() throws Exception {
+
+		String etag = mockMvc.perform(get("/api/students/{id}", 1))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(post("/api/grades").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(new GradeRequest(1, "math", 80.00))))
+				.andExpect(status().isCreated());
+
+		String afterCreate = mockMvc.perform(get("/api/students/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.subjects.math.grades.length()").value(2))
+				.andExpect(jsonPath("$.subjects.math.average").value(90.0))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		assertNotEquals(etag, afterCreate);
+
+		mockMvc.perform(delete("/api/grades/{id}/{gradeType}", 1, "math")).andExpect(status().isNoContent());
+		mockMvc.perform(delete("/api/grades/{id}/{gradeType}", 1, "math")).andExpect(status().isNotFound());
+
+		mockMvc.perform(get("/api/students/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, afterCreate))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1-2\""))
+				.andExpect(jsonPath("$.subjects.math.grades.length()").value(1));
+
+		mockMvc.perform(post("/grades/import").contentType("text/csv").content("1,science,70.00"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/students/{id}", 1))
+				.andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""));
+
+	}
+
+	@Test
+	public void rejectedGrades() throws Exception {
+
+		mockMvc.perform(post("/api/grades").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(new GradeRequest(1, "math", 105.00))))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(post("/api/grades").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(new GradeRequest(1, "literature", 85.00))))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(post("/api/grades").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(new GradeRequest(0, "math", 85.00))))
+				.andExpect(status().isNotFound());
+
+		assertEquals(0L, jdbc.queryForObject("select version from student where id = 1", Long.class));
+
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteMathGrade);
+		jdbc.execute(sqlDeleteScienceGrade);
+		jdbc.execute(sqlDeleteHistoryGrade);
+		jdbc.execute(sqlDeleteGradeStatistics);
+		cacheManager.getCache(StudentInformationCache.STUDENT_INFORMATION).clear();
+		cacheManager.getCache(StudentInformationCache.STUDENT_AVERAGES).clear();
+	}
+
+}
@@ -7,11 +7,19 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +29,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -36,7 +45,10 @@ import io.github.leonardomvs.springmvc.models.GradebookCollegeStudent;
 import io.github.leonardomvs.springmvc.models.MathGrade;
 import io.github.leonardomvs.springmvc.repository.MathGradeDao;
 import io.github.leonardomvs.springmvc.repository.StudentDao;
+import io.github.leonardomvs.springmvc.monitoring.SqlRequestInterceptor;
 import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @TestPropertySource("/application-test.properties")
 @AutoConfigureMockMvc
@@ -60,6 +72,12 @@ public class GradebookControllerTest {
 	@Autowired
 	StudentAndGradeService studentService;
 	
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	MeterRegistry meterRegistry;
+	
 	@Mock
 	StudentAndGradeService studentCreateServiceMock;
 	
@@ -87,6 +105,9 @@ public class GradebookControllerTest {
 	@Value("${sql.script.delete.history.grade}")
 	private String sqlDeleteHistoryGrade;
 	
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
+	
 	@BeforeAll
 	public static void setup() {
 		request = new MockHttpServletRequest();
@@ -143,11 +164,12 @@ public class GradebookControllerTest {
 				.param("firstname", request.getParameterValues("firstname"))
 				.param("lastname", request.getParameterValues("lastname"))
 				.param("emailAddress", request.getParameterValues("emailAddress")))
-				.andExpect(status().isOk()).andReturn();
+				.andExpect(status().is3xxRedirection())
+				.andExpect(redirectedUrl("/")).andReturn();
 		
 		ModelAndView mav = mvcResult.getModelAndView();
 		
-		ModelAndViewAssert.assertViewName(mav, "index");
+		ModelAndViewAssert.assertViewName(mav, "redirect:/");
 		
 		CollegeStudent verifyStudent = studentDao.findByEmailAddress("chad.darby@luv2code_school.com");
 		
@@ -155,6 +177,22 @@ public class GradebookControllerTest {
 		
 	}
 	
+	@Test
+	void createStudentHttpRequestDuplicateEmailErrorPage() throws Exception {
+		
+		MvcResult mvcResult = this.mockMvc.perform(post("/")
+				.param("firstname", "Other")
+				.param("lastname", "Student")
+				.param("emailAddress", "eric.roby@luv2code_school.com"))
+				.andExpect(status().isOk())
+				.andReturn();
+		
+		ModelAndViewAssert.assertViewName(mvcResult.getModelAndView(), "error");
+		
+		assertEquals("Eric", studentDao.findByEmailAddress("eric.roby@luv2code_school.com").getFirstname());
+		
+	}
+	
 	@Test
 	void deleteStudentHttpRequest() throws Exception {
 		
@@ -162,17 +200,64 @@ public class GradebookControllerTest {
 		
 		MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
 				.get("/delete/student/{id}", 1))
-				.andExpect(status().isOk())
+				.andExpect(status().is3xxRedirection())
+				.andExpect(redirectedUrl("/"))
 				.andReturn();
 		
 		ModelAndView mav = mvcResult.getModelAndView();
 		
-		ModelAndViewAssert.assertViewName(mav, "index");
+		ModelAndViewAssert.assertViewName(mav, "redirect:/");
 		
 		assertFalse(studentDao.findById(1).isPresent());
 		
 	}
 	
+	@Test
+	void deleteStudentsHttpRequest() throws Exception {
+		
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (2,'Chad', 'Darby', 'chad.darby@luv2code_school.com')");
+		
+		mockMvc.perform(MockMvcRequestBuilders
+				.post("/delete/students")
+				.param("ids", "1,2"))
+				.andExpect(status().is3xxRedirection())
+				.andExpect(redirectedUrl("/"));
+		
+		assertFalse(studentDao.findById(1).isPresent());
+		assertFalse(studentDao.findById(2).isPresent());
+		assertFalse(mathGradeDao.findById(1).isPresent());
+		
+		MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
+				.post("/delete/students")
+				.param("ids", "1", "2"))
+				.andExpect(status().isOk())
+				.andReturn();
+		
+		ModelAndViewAssert.assertViewName(mvcResult.getModelAndView(), "error");
+		
+	}
+	
+	@Test
+	void deleteStudentsHttpRequestIgnoresBlankIds() throws Exception {
+		
+		mockMvc.perform(MockMvcRequestBuilders
+				.post("/delete/students")
+				.param("ids", "1", ""))
+				.andExpect(status().is3xxRedirection())
+				.andExpect(redirectedUrl("/"));
+		
+		assertFalse(studentDao.findById(1).isPresent());
+		
+		MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
+				.post("/delete/students")
+				.param("ids", ""))
+				.andExpect(status().isOk())
+				.andReturn();
+		
+		ModelAndViewAssert.assertViewName(mvcResult.getModelAndView(), "error");
+		
+	}
+	
 	@Test
 	void deleteStudentHttpRequestErrorPage() throws Exception {
 		
@@ -187,6 +272,41 @@ public class GradebookControllerTest {
 		
 	}
 	
+	@Test
+	void exportGradebookCsvHttpRequest() throws Exception {
+		
+		jdbc.execute("insert into math_grade(id,student_id,grade) values (2,1,80.00)");
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (2,'Chad', 'Darby, Jr.', 'chad.darby@luv2code_school.com')");
+		
+		mockMvc.perform(MockMvcRequestBuilders
+				.get("/export"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"gradebook.csv\""))
+				.andExpect(content().string("studentId,firstname,lastname,emailAddress,"
+						+ "mathGrades,scienceGrades,historyGrades,mathAverage,scienceAverage,historyAverage\n"
+						+ "1,Eric,Roby,eric.roby@luv2code_school.com,100.0;80.0,100.0,100.0,90.0,100.0,100.0\n"
+						+ "2,Chad,\"Darby, Jr.\",chad.darby@luv2code_school.com,,,,,,\n"));
+		
+	}
+	
+	@Test
+	void exportGradebookJsonHttpRequest() throws Exception {
+		
+		mockMvc.perform(MockMvcRequestBuilders
+				.get("/export")
+				.param("format", "json"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].studentId").value(1))
+				.andExpect(jsonPath("$[0].mathGrades[0]").value(100.0))
+				.andExpect(jsonPath("$[0].historyAverage").value(100.0));
+		
+		mockMvc.perform(MockMvcRequestBuilders
+				.get("/export")
+				.param("format", "xml"))
+				.andExpect(status().isBadRequest());
+		
+	}
+	
 	@Test
 	void studentInformationHttpRequest() throws Exception {
 		
@@ -203,6 +323,76 @@ public class GradebookControllerTest {
 		
 	}
 	
+	@Test
+	void studentInformationHttpRequestRunsSingleQuery() throws Exception {
+		
+		jdbc.execute("insert into math_grade(id,student_id,grade) values (2,1,80.00)");
+		
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		
+		statistics.clear();
+		
+		MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
+				.get("/studentInformation/{id}", 1))
+				.andExpect(status().isOk())
+				.andReturn();
+		
+		assertTrue(statistics.getPrepareStatementCount() <= 2, 
+				"Student detail page ran " + statistics.getPrepareStatementCount() + " statements");
+		
+		ModelAndView mav = mvcResult.getModelAndView();
+		
+		ModelAndViewAssert.assertViewName(mav, "studentInformation");
+		ModelAndViewAssert.assertModelAttributeValue(mav, "mathAverage", 90.0);
+		
+		GradebookCollegeStudent student = (GradebookCollegeStudent) mav.getModel().get("student");
+		
+		assertEquals(2, student.getStudentGrades().getMathGradeResults().size());
+		assertEquals(1, student.getStudentGrades().getScienceGradeResults().size());
+		assertEquals(1, student.getStudentGrades().getHistoryGradeResults().size());
+		
+	}
+	
+	@Test
+	void sqlStatementsCountedPerRequest() throws Exception {
+		
+		DistributionSummary before = meterRegistry.find(SqlRequestInterceptor.REQUEST_STATEMENTS)
+				.tag("handler", "GradebookController#studentInformation").summary();
+		
+		long requests = before == null ? 0 : before.count();
+		double statements = before == null ? 0 : before.totalAmount();
+		
+		mockMvc.perform(MockMvcRequestBuilders.get("/studentInformation/{id}", 1))
+				.andExpect(status().isOk());
+		
+		DistributionSummary after = meterRegistry.get(SqlRequestInterceptor.REQUEST_STATEMENTS)
+				.tag("handler", "GradebookController#studentInformation").summary();
+		
+		assertEquals(requests + 1, after.count());
+		assertTrue(after.totalAmount() - statements >= 1, "The transcript query is counted");
+		assertTrue(after.totalAmount() - statements <= 2, "Student detail page ran " 
+				+ (after.totalAmount() - statements) + " statements");
+		
+	}
+	
+	@Test
+	void studentInformationHttpRequestNotModified() throws Exception {
+		
+		MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
+				.get("/studentInformation/{id}", 1))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn();
+		
+		String etag = mvcResult.getResponse().getHeader(HttpHeaders.ETAG);
+		
+		mockMvc.perform(MockMvcRequestBuilders
+				.get("/studentInformation/{id}", 1)
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		
+	}
+	
 	@Test
 	void studentInformationHttpStudentDoesNotExistRequest() throws Exception {
 		
@@ -234,12 +424,13 @@ public class GradebookControllerTest {
 				.param("grade", "85.00")
 				.param("gradeType", "math")
 				.param("studentId", "1"))
-				.andExpect(status().isOk())
+				.andExpect(status().is3xxRedirection())
+				.andExpect(redirectedUrl("/studentInformation/1"))
 				.andReturn();
 		
 		ModelAndView mav = mvcResult.getModelAndView();
 		
-		ModelAndViewAssert.assertViewName(mav, "studentInformation");
+		ModelAndViewAssert.assertViewName(mav, "redirect:/studentInformation/1");
 		
 		student = studentService.studentInformation(1);
 		
@@ -283,6 +474,26 @@ public class GradebookControllerTest {
 		
 	}
 	
+	@Test
+	void importGradesCsvHttpRequest() throws Exception {
+		
+		mockMvc.perform(MockMvcRequestBuilders
+				.post("/grades/import")
+				.contentType("text/csv")
+				.content("studentId,gradeType,grade\n1,math,85.00\n1,science,70.00\n0,math,90.00\n"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.accepted").value(2))
+				.andExpect(jsonPath("$.rejected").value(1))
+				.andExpect(jsonPath("$.errors[0].row").value(4))
+				.andExpect(jsonPath("$.errors[0].reason").value("UNKNOWN_STUDENT"));
+		
+		GradebookCollegeStudent student = studentService.studentInformation(1);
+		
+		assertEquals(2, student.getStudentGrades().getMathGradeResults().size());
+		assertEquals(2, student.getStudentGrades().getScienceGradeResults().size());
+		
+	}
+	
 	@Test
 	void deleteAValidGradeHttpRequest() throws Exception {
 		
@@ -292,12 +503,13 @@ public class GradebookControllerTest {
 		
 		MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
 				.get("/grades/{id}/{gradeType}", 1, "math"))
-				.andExpect(status().isOk())
+				.andExpect(status().is3xxRedirection())
+				.andExpect(redirectedUrl("/studentInformation/1"))
 				.andReturn();
 
 		ModelAndView mav = mvcResult.getModelAndView();
 		
-		ModelAndViewAssert.assertViewName(mav, "studentInformation");
+		ModelAndViewAssert.assertViewName(mav, "redirect:/studentInformation/1");
 		
 		mathGrade = mathGradeDao.findById(1);
 		
@@ -342,6 +554,7 @@ public class GradebookControllerTest {
 		jdbc.execute(sqlDeleteMathGrade);
 		jdbc.execute(sqlDeleteScienceGrade);
 		jdbc.execute(sqlDeleteHistoryGrade);
+		jdbc.execute(sqlDeleteGradeStatistics);
 	}
 	
 }
@@ -0,0 +1,318 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.leonardomvs.springmvc.service.GradeStatisticsService;
+
+/*
+ * Drives the gradebook pages over HTTP with many concurrent clients and writes
+ * p50/p99 latency, throughput and errors per endpoint to a JSON report. Tagged
+ * "load" so the normal build skips it, run it with:
+ *
+ *   mvn -Pload-test test -Dload.students=500 -Dload.threads=64
+ */
+@Tag("load")
+@TestPropertySource("/application-test.properties")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+public class GradebookLoadTest {
+
+	private static final int STUDENTS = Integer.getInteger("load.students", 200);
+
+	private static final int GRADES_PER_STUDENT = Integer.getInteger("load.grades-per-student", 20);
+
+	private static final int THREADS = Integer.getInteger("load.threads", 32);
+
+	private static final int ITERATIONS_PER_THREAD = Integer.getInteger("load.iterations", 50);
+
+	private static final String REPORT = System.getProperty("load.report", "target/load-test-report.json");
+
+	private static final String[] GRADE_TYPES = { "math", "science", "history" };
+
+	// the error view renders with a 200
+	private static final String ERROR_PAGE_TEXT = "Something went wrong";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	GradeStatisticsService gradeStatisticsService;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.math.grade}")
+	private String sqlDeleteMathGrade;
+
+	@Value("${sql.script.delete.science.grade}")
+	private String sqlDeleteScienceGrade;
+
+	@Value("${sql.script.delete.history.grade}")
+	private String sqlDeleteHistoryGrade;
+
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
+
+	// seeded math grades, each deleted once by the clients
+	private final Queue<Integer> deletableMathGrades = new ConcurrentLinkedQueue<>();
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.followRedirects(HttpClient.Redirect.NEVER)
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+
+	@BeforeEach
+	public void seedDatabase() {
+
+		List<Object[]> students = new ArrayList<>(STUDENTS);
+		List<Object[]> grades = new ArrayList<>(STUDENTS * GRADES_PER_STUDENT);
+
+		for(int id = 1; id <= STUDENTS; id++) {
+			students.add(new Object[] { id, "Student", "Number" + id, "student" + id + "@luv2code_school.com" });
+			for(int i = 0; i < GRADES_PER_STUDENT; i++) {
+				grades.add(new Object[] { id, 50.0 + (i % 51) });
+			}
+		}
+
+		jdbc.batchUpdate("insert into student(id,firstname,lastname,email_address) values (?,?,?,?)", students);
+
+		for(String gradeType : GRADE_TYPES) {
+			jdbc.batchUpdate("insert into " + gradeType + "_grade(student_id,grade) values (?,?)", grades);
+		}
+
+		deletableMathGrades.addAll(jdbc.queryForList("select id from math_grade order by id", Integer.class));
+
+		gradeStatisticsService.rebuildAll();
+	}
+
+	@Test
+	public void gradebookUnderConcurrentLoad() throws Exception {
+
+		Map<String, EndpointStats> endpoints = new LinkedHashMap<>();
+		endpoints.put("GET /", new EndpointStats());
+		endpoints.put("GET /studentInformation/{id}", new EndpointStats());
+		endpoints.put("POST /grades", new EndpointStats());
+		endpoints.put("GET /grades/{id}/{gradeType}", new EndpointStats());
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> clients = new ArrayList<>(THREADS);
+
+		try {
+			for(int i = 0; i < THREADS; i++) {
+				clients.add(executor.submit(() -> {
+					start.await();
+					for(int iteration = 0; iteration < ITERATIONS_PER_THREAD; iteration++) {
+						runIteration(endpoints);
+					}
+					return null;
+				}));
+			}
+
+			long started = System.nanoTime();
+			start.countDown();
+
+			for(Future<?> client : clients) {
+				client.get(10, TimeUnit.MINUTES);
+			}
+
+			long elapsedNanos = System.nanoTime() - started;
+
+			Map<String, Object> report = report(endpoints, elapsedNanos);
+
+			File reportFile = new File(REPORT);
+			if(reportFile.getParentFile() != null) {
+				reportFile.getParentFile().mkdirs();
+			}
+			objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+
+			assertEquals(0L, report.get("errors"), "Failed requests, see " + reportFile.getAbsolutePath());
+
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// the running statistics must still match the grade tables after the concurrent writes
+		int gradesInTables = 0;
+		for(String gradeType : GRADE_TYPES) {
+			gradesInTables += jdbc.queryForObject("select count(*) from " + gradeType + "_grade", Integer.class);
+		}
+
+		assertEquals(gradesInTables, jdbc.queryForObject("select sum(grade_count) from grade_statistics", Integer.class));
+
+	}
+
+	// one request to every endpoint
+	private void runIteration(Map<String, EndpointStats> endpoints) {
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int studentId = 1 + random.nextInt(STUDENTS);
+
+		send(endpoints.get("GET /"), HttpRequest.newBuilder(uri("/")).GET().build(), 200);
+
+		send(endpoints.get("GET /studentInformation/{id}"),
+				HttpRequest.newBuilder(uri("/studentInformation/" + studentId)).GET().build(), 200);
+
+		String form = "grade=" + random.nextInt(101) + "&gradeType=" + GRADE_TYPES[random.nextInt(GRADE_TYPES.length)]
+				+ "&studentId=" + studentId;
+
+		send(endpoints.get("POST /grades"), HttpRequest.newBuilder(uri("/grades"))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form))
+				.build(), 302);
+
+		Integer gradeId = deletableMathGrades.poll();
+
+		if(gradeId != null) {
+			send(endpoints.get("GET /grades/{id}/{gradeType}"),
+					HttpRequest.newBuilder(uri("/grades/" + gradeId + "/math")).GET().build(), 302);
+		}
+	}
+
+	private void send(EndpointStats stats, HttpRequest request, int expectedStatus) {
+
+		long started = System.nanoTime();
+		boolean error;
+
+		try {
+			HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+			error = response.statusCode() != expectedStatus || response.body().contains(ERROR_PAGE_TEXT);
+		} catch (Exception e) {
+			error = true;
+		}
+
+		stats.record(System.nanoTime() - started, error);
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	private Map<String, Object> report(Map<String, EndpointStats> endpoints, long elapsedNanos) {
+
+		double elapsedSeconds = elapsedNanos / 1e9;
+		long requests = 0;
+		long errors = 0;
+
+		Map<String, Object> endpointReports = new LinkedHashMap<>();
+
+		for(Map.Entry<String, EndpointStats> endpoint : endpoints.entrySet()) {
+
+			long[] latencies = endpoint.getValue().sortedLatencies();
+			long endpointErrors = endpoint.getValue().errors();
+
+			Map<String, Object> endpointReport = new LinkedHashMap<>();
+			endpointReport.put("requests", latencies.length);
+			endpointReport.put("errors", endpointErrors);
+			endpointReport.put("throughputPerSecond", latencies.length / elapsedSeconds);
+			endpointReport.put("p50Millis", percentileMillis(latencies, 50));
+			endpointReport.put("p99Millis", percentileMillis(latencies, 99));
+			endpointReport.put("maxMillis", percentileMillis(latencies, 100));
+
+			endpointReports.put(endpoint.getKey(), endpointReport);
+			requests += latencies.length;
+			errors += endpointErrors;
+		}
+
+		Map<String, Object> configuration = new LinkedHashMap<>();
+		configuration.put("students", STUDENTS);
+		configuration.put("gradesPerStudent", GRADES_PER_STUDENT);
+		configuration.put("threads", THREADS);
+		configuration.put("iterationsPerThread", ITERATIONS_PER_THREAD);
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("configuration", configuration);
+		report.put("durationSeconds", elapsedSeconds);
+		report.put("requests", requests);
+		report.put("errors", errors);
+		report.put("throughputPerSecond", requests / elapsedSeconds);
+		report.put("endpoints", endpointReports);
+
+		return report;
+	}
+
+	// nearest-rank percentile, 0 without samples
+	private static double percentileMillis(long[] sortedLatencies, int percentile) {
+		if(sortedLatencies.length == 0) { return 0; }
+		int rank = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length);
+		return sortedLatencies[Math.max(rank, 1) - 1] / 1e6;
+	}
+
+	private static final class EndpointStats {
+
+		private long[] latencies = new long[1024];
+
+		private int count;
+
+		private long errors;
+
+		private synchronized void record(long latencyNanos, boolean error) {
+			if(count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = latencyNanos;
+			if(error) {
+				errors++;
+			}
+		}
+
+		private synchronized long[] sortedLatencies() {
+			long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+			return sorted;
+		}
+
+		private synchronized long errors() {
+			return errors;
+		}
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteMathGrade);
+		jdbc.execute(sqlDeleteScienceGrade);
+		jdbc.execute(sqlDeleteHistoryGrade);
+		jdbc.execute(sqlDeleteGradeStatistics);
+	}
+
+}
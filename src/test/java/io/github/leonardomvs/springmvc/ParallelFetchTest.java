@@ -0,0 +1,179 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.github.leonardomvs.springmvc.models.GradebookCollegeStudent;
+import io.github.leonardomvs.springmvc.models.StudentGradeSnapshot;
+import io.github.leonardomvs.springmvc.monitoring.SqlRequestInterceptor;
+import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@TestPropertySource(locations = "/application-test.properties", properties = {
+		"gradebook.student-information.fetch=parallel",
+		"gradebook.student-information.parallel-threads=4",
+		"spring.datasource.hikari.maximum-pool-size=2",
+		"spring.datasource.hikari.connection-timeout=5000" })
+@AutoConfigureMockMvc
+@SpringBootTest
+public class ParallelFetchTest {
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	StudentAndGradeService studentService;
+
+	@Autowired
+	@Qualifier(ParallelFetchConfiguration.GRADE_QUERY_DATA_SOURCE)
+	DataSource gradeQueryDataSource;
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Value("${sql.script.create.student}")
+	private String sqlAddStudent;
+
+	@Value("${sql.script.create.math.grade}")
+	private String sqlAddMathGrade;
+
+	@Value("${sql.script.create.science.grade}")
+	private String sqlAddScienceGrade;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.math.grade}")
+	private String sqlDeleteMathGrade;
+
+	@Value("${sql.script.delete.science.grade}")
+	private String sqlDeleteScienceGrade;
+
+	@Value("${sql.script.delete.history.grade}")
+	private String sqlDeleteHistoryGrade;
+
+	@BeforeEach
+	public void setupDatabase() {
+		jdbc.execute(sqlAddStudent);
+		jdbc.execute(sqlAddMathGrade);
+		jdbc.execute(sqlAddScienceGrade);
+		jdbc.execute("insert into math_grade(id,student_id,grade) values (2,1,80.00)");
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (2,'Chad','Darby','chad.darby@luv2code_school.com')");
+	}
+
+	@Test
+	public void queriesUseTheirOwnConnectionPool() throws Exception {
+		assertEquals(2, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+
+		HikariDataSource gradeQueryPool = gradeQueryDataSource.unwrap(HikariDataSource.class);
+
+		assertEquals(4, gradeQueryPool.getMaximumPoolSize());
+		assertEquals(5000, gradeQueryPool.getConnectionTimeout(), "The spring.datasource.hikari settings apply");
+	}
+
+	@Test
+	public void queriesOnTheQueryThreadsCountForTheRequest() throws Exception {
+
+		DistributionSummary before = meterRegistry.find(SqlRequestInterceptor.REQUEST_STATEMENTS)
+				.tag("handler", "GradebookController#studentInformation").summary();
+
+		double statements = before == null ? 0 : before.totalAmount();
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/studentInformation/{id}", 1))
+				.andExpect(status().isOk());
+
+		DistributionSummary after = meterRegistry.get(SqlRequestInterceptor.REQUEST_STATEMENTS)
+				.tag("handler", "GradebookController#studentInformation").summary();
+
+		assertTrue(after.totalAmount() - statements >= 4, "The student query and one query per subject");
+	}
+
+	@Test
+	public void moreRequestsThanConnectionsDoNotStarveTheirQueries() throws Exception {
+
+		ExecutorService requests = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<GradebookCollegeStudent>> students = new ArrayList<>();
+			for(int i = 0; i < 32; i++) {
+				students.add(requests.submit(() -> studentService.studentInformation(1)));
+			}
+			for(Future<GradebookCollegeStudent> student : students) {
+				assertEquals(2, student.get(30, TimeUnit.SECONDS).getGradeSnapshot().getMathGrades().size());
+			}
+		} finally {
+			requests.shutdownNow();
+		}
+
+	}
+
+	@Test
+	public void subjectsReadInParallel() {
+
+		GradebookCollegeStudent student = studentService.studentInformation(1);
+
+		assertEquals("eric.roby@luv2code_school.com", student.getEmailAddress());
+
+		StudentGradeSnapshot snapshot = student.getGradeSnapshot();
+
+		assertEquals(2, snapshot.getMathGrades().size());
+		assertEquals(1, snapshot.getMathGrades().getId(0));
+		assertEquals(80.0, snapshot.getMathGrades().getGrade(1));
+		assertEquals(1, snapshot.getScienceGrades().size());
+		assertEquals(0, snapshot.getHistoryGrades().size());
+
+	}
+
+	@Test
+	public void studentWithoutGradesAndUnknownStudent() {
+
+		GradebookCollegeStudent student = studentService.studentInformation(2);
+
+		assertEquals("Chad", student.getFirstname());
+		assertEquals(0, student.getStudentGrades().getMathGradeResults().size());
+
+		assertNull(studentService.studentInformation(99));
+
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteMathGrade);
+		jdbc.execute(sqlDeleteScienceGrade);
+		jdbc.execute(sqlDeleteHistoryGrade);
+	}
+
+}
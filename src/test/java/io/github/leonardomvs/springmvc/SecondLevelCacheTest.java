@@ -0,0 +1,120 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.leonardomvs.springmvc.models.CollegeStudent;
+import io.github.leonardomvs.springmvc.repository.StudentDao;
+import io.github.leonardomvs.springmvc.service.GradeImportService;
+import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+
+@TestPropertySource(locations = "/application-test.properties",
+		properties = "spring.jpa.properties.hibernate.cache.use_second_level_cache=true")
+@SpringBootTest
+public class SecondLevelCacheTest {
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	StudentAndGradeService studentService;
+
+	@Autowired
+	StudentDao studentDao;
+
+	@Autowired
+	GradeImportService gradeImportService;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Value("${sql.script.create.student}")
+	private String sqlAddStudent;
+
+	@Value("${sql.script.create.math.grade}")
+	private String sqlAddMathGrade;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.math.grade}")
+	private String sqlDeleteMathGrade;
+
+	@Value("${sql.script.delete.science.grade}")
+	private String sqlDeleteScienceGrade;
+
+	@Value("${sql.script.delete.history.grade}")
+	private String sqlDeleteHistoryGrade;
+
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
+
+	@BeforeEach
+	public void setupDatabase() {
+		jdbc.execute(sqlAddStudent);
+		jdbc.execute(sqlAddMathGrade);
+	}
+
+	@Test
+	public void repeatedStudentLookupIsServedFromCache() {
+
+		Statistics statistics = statistics();
+
+		assertTrue(studentDao.findById(1).isPresent());
+
+		statistics.clear();
+
+		assertTrue(studentDao.findById(1).isPresent());
+		assertTrue(studentDao.findById(1).isPresent());
+
+		assertEquals(0, statistics.getPrepareStatementCount(), "Repeat lookups should not reach the database");
+		assertEquals(2, statistics.getDomainDataRegionStatistics(CollegeStudent.class.getName()).getHitCount());
+
+	}
+
+	@Test
+	public void gradeWritesInvalidateCachedStudent() throws Exception {
+
+		long version = studentDao.findById(1).get().getVersion();
+
+		assertTrue(studentService.createGrade(80.00, 1, "math"));
+
+		assertEquals(version + 1, studentDao.findById(1).get().getVersion(), "The version bump must evict the student");
+
+		assertEquals(1, gradeImportService.importCsv(new StringReader("1,math,80.00")).getAccepted());
+
+		assertEquals(version + 2, studentDao.findById(1).get().getVersion(), "Batched imports must evict the student too");
+
+	}
+
+	private Statistics statistics() {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteMathGrade);
+		jdbc.execute(sqlDeleteScienceGrade);
+		jdbc.execute(sqlDeleteHistoryGrade);
+		jdbc.execute(sqlDeleteGradeStatistics);
+		// the rows above are removed behind Hibernate's back
+		entityManagerFactory.getCache().evictAll();
+	}
+
+}
@@ -0,0 +1,161 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+
+import io.github.leonardomvs.springmvc.models.GradebookCollegeStudent;
+import io.github.leonardomvs.springmvc.models.StudentGradeSnapshot;
+import io.github.leonardomvs.springmvc.service.GradeImportService;
+import io.github.leonardomvs.springmvc.service.GradeStore;
+import io.github.leonardomvs.springmvc.service.GradebookExportService;
+import io.github.leonardomvs.springmvc.service.SingleTableGradeStore;
+import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+
+@TestPropertySource(locations = "/application-test.properties", properties = "gradebook.grades.storage=single-table")
+@SpringBootTest
+public class SingleTableGradeStoreTest {
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	GradeStore gradeStore;
+
+	@Autowired
+	StudentAndGradeService studentService;
+
+	@Autowired
+	GradeImportService gradeImportService;
+
+	@Autowired
+	GradebookExportService gradebookExportService;
+
+	@Value("${sql.script.create.student}")
+	private String sqlAddStudent;
+
+	@Value("${sql.script.create.math.grade}")
+	private String sqlAddMathGrade;
+
+	@Value("${sql.script.create.science.grade}")
+	private String sqlAddScienceGrade;
+
+	@Value("${sql.script.create.history.grade}")
+	private String sqlAddHistoryGrade;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.math.grade}")
+	private String sqlDeleteMathGrade;
+
+	@Value("${sql.script.delete.science.grade}")
+	private String sqlDeleteScienceGrade;
+
+	@Value("${sql.script.delete.history.grade}")
+	private String sqlDeleteHistoryGrade;
+
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
+
+	@BeforeEach
+	public void setupDatabase() {
+		jdbc.execute(sqlAddStudent);
+		jdbc.execute(sqlAddMathGrade);
+		jdbc.execute(sqlAddScienceGrade);
+		jdbc.execute(sqlAddHistoryGrade);
+		jdbc.execute("insert into math_grade(id,student_id,grade) values (2,1,80.00)");
+		new ResourceDatabasePopulator(new ClassPathResource("db/migrate-to-single-grade-table.sql")).execute(dataSource);
+	}
+
+	@Test
+	public void migrationCopiesSubjectTables() {
+
+		assertTrue(gradeStore instanceof SingleTableGradeStore);
+
+		StudentGradeSnapshot snapshot = studentService.studentInformation(1).getGradeSnapshot();
+
+		assertEquals(2, snapshot.getMathGrades().size());
+		assertEquals(90.0, snapshot.getMathGrades().getAverage());
+		assertEquals(1, snapshot.getScienceGrades().size());
+		assertEquals(1, snapshot.getHistoryGrades().size());
+
+		Model model = new ExtendedModelMap();
+
+		studentService.configureStudentAveragesModel(1, model);
+
+		assertEquals(90.0, model.getAttribute("mathAverage"));
+		assertEquals(100.0, model.getAttribute("historyAverage"));
+
+	}
+
+	@Test
+	public void createAndDeleteGrades() {
+
+		assertTrue(studentService.createGrade(70.00, 1, "science"));
+
+		GradebookCollegeStudent student = studentService.studentInformation(1);
+
+		assertEquals(2, student.getGradeSnapshot().getScienceGrades().size());
+
+		int scienceGradeId = jdbc.queryForObject("select id from grade where subject = 'science' and grade = 70.00", Integer.class);
+
+		assertEquals(0, studentService.deleteGrade(scienceGradeId, "math"), "The id belongs to a science grade");
+		assertEquals(1, studentService.deleteGrade(scienceGradeId, "science"));
+
+		assertEquals(1, studentService.studentInformation(1).getGradeSnapshot().getScienceGrades().size());
+
+	}
+
+	@Test
+	public void importExportAndDeleteUseGradeTable() throws Exception {
+
+		assertEquals(2, gradeImportService.importCsv(new StringReader("1,history,60.00\n1,history,80.00")).getAccepted());
+
+		assertEquals(3, jdbc.queryForObject("select count(*) from grade where student_id = 1 and subject = 'history'", Integer.class));
+
+		StringWriter export = new StringWriter();
+
+		gradebookExportService.exportCsv(export);
+
+		assertEquals("1,Eric,Roby,eric.roby@luv2code_school.com,100.0;80.0,100.0,100.0;60.0;80.0,90.0,100.0,80.0",
+				export.toString().split("\n")[1]);
+
+		assertEquals(1, studentService.deleteStudents(List.of(1)));
+
+		assertEquals(0, jdbc.queryForObject("select count(*) from grade", Integer.class));
+
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteMathGrade);
+		jdbc.execute(sqlDeleteScienceGrade);
+		jdbc.execute(sqlDeleteHistoryGrade);
+		jdbc.execute(sqlDeleteGradeStatistics);
+		jdbc.execute("DELETE FROM grade");
+	}
+
+}
@@ -0,0 +1,141 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+
+@TestPropertySource("/application-test.properties")
+@SpringBootTest
+public class StudentAndGradeServiceConcurrencyTest {
+
+	private static final int STUDENTS = 8;
+
+	private static final int GRADES = 4000;
+
+	private static final int THREADS = 16;
+
+	private static final String[] GRADE_TYPES = { "math", "science", "history" };
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	StudentAndGradeService studentService;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.math.grade}")
+	private String sqlDeleteMathGrade;
+
+	@Value("${sql.script.delete.science.grade}")
+	private String sqlDeleteScienceGrade;
+
+	@Value("${sql.script.delete.history.grade}")
+	private String sqlDeleteHistoryGrade;
+
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
+
+	@BeforeEach
+	public void setupDatabase() {
+		for(int id = 1; id <= STUDENTS; id++) {
+			jdbc.update("insert into student(id,firstname,lastname,email_address) values (?,?,?,?)",
+					id, "Student", "Number" + id, "student" + id + "@luv2code_school.com");
+		}
+	}
+
+	@Test
+	public void concurrentCreateGradeKeepsStudentAndValue() throws Exception {
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>(GRADES);
+
+		try {
+			for(int i = 0; i < GRADES; i++) {
+				int call = i;
+				results.add(executor.submit(() -> {
+					start.await();
+					return studentService.createGrade(gradeFor(call), studentFor(call), GRADE_TYPES[call % GRADE_TYPES.length]);
+				}));
+			}
+
+			start.countDown();
+
+			for(Future<Boolean> result : results) {
+				assertTrue(result.get(60, TimeUnit.SECONDS), "Every grade should be accepted");
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// Every call is identified by its grade value, so each row can be traced back to its caller
+		boolean[] seen = new boolean[GRADES];
+
+		for(int subject = 0; subject < GRADE_TYPES.length; subject++) {
+			int expectedSubject = subject;
+			jdbc.query("select student_id, grade from " + GRADE_TYPES[subject] + "_grade", rs -> {
+				int call = (int) Math.round(rs.getDouble("grade") * 100);
+				assertFalse(seen[call], "Grade " + call + " saved more than once");
+				seen[call] = true;
+				assertEquals(studentFor(call), rs.getInt("student_id"), "Grade " + call + " has the wrong student");
+				assertEquals(expectedSubject, call % GRADE_TYPES.length, "Grade " + call + " is in the wrong table");
+			});
+		}
+
+		for(int call = 0; call < GRADES; call++) {
+			assertTrue(seen[call], "Grade " + call + " is missing");
+		}
+
+		// The running statistics must agree with the rows after the concurrent writes
+		for(String gradeType : GRADE_TYPES) {
+			jdbc.query("select student_id, count(*) as grade_count, sum(grade) as grade_sum from " + gradeType + "_grade group by student_id", rs -> {
+				Map<String, Object> statistics = jdbc.queryForMap(
+						"select grade_count, grade_sum from grade_statistics where student_id = ? and grade_type = ?",
+						rs.getInt("student_id"), gradeType);
+				assertEquals(rs.getLong("grade_count"), ((Number) statistics.get("grade_count")).longValue());
+				assertEquals(rs.getDouble("grade_sum"), ((Number) statistics.get("grade_sum")).doubleValue(), 0.0001);
+			});
+		}
+
+	}
+
+	private static int studentFor(int call) {
+		return 1 + call % STUDENTS;
+	}
+
+	private static double gradeFor(int call) {
+		return call / 100.0;
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteMathGrade);
+		jdbc.execute(sqlDeleteScienceGrade);
+		jdbc.execute(sqlDeleteHistoryGrade);
+		jdbc.execute(sqlDeleteGradeStatistics);
+	}
+
+}
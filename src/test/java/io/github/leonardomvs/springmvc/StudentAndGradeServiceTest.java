@@ -3,14 +3,21 @@ package io.github.leonardomvs.springmvc;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,17 +27,24 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
 
 import io.github.leonardomvs.springmvc.models.CollegeStudent;
 import io.github.leonardomvs.springmvc.models.GradebookCollegeStudent;
 import io.github.leonardomvs.springmvc.models.HistoryGrade;
 import io.github.leonardomvs.springmvc.models.MathGrade;
 import io.github.leonardomvs.springmvc.models.ScienceGrade;
+import io.github.leonardomvs.springmvc.models.StudentGradeSnapshot;
+import io.github.leonardomvs.springmvc.models.StudentPage;
+import io.github.leonardomvs.springmvc.repository.GradeAggregateRow;
 import io.github.leonardomvs.springmvc.repository.HistoryGradeDao;
 import io.github.leonardomvs.springmvc.repository.MathGradeDao;
 import io.github.leonardomvs.springmvc.repository.ScienceGradeDao;
 import io.github.leonardomvs.springmvc.repository.StudentDao;
+import io.github.leonardomvs.springmvc.service.GradebookMetrics;
 import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @TestPropertySource("/application-test.properties")
 @SpringBootTest
@@ -54,6 +68,12 @@ public class StudentAndGradeServiceTest {
 	@Autowired
 	StudentAndGradeService studentService;
 	
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	MeterRegistry meterRegistry;
+	
 	@Value("${sql.script.create.student}")
 	private String sqlAddStudent;
 	
@@ -77,6 +97,9 @@ public class StudentAndGradeServiceTest {
 	
 	@Value("${sql.script.delete.history.grade}")
 	private String sqlDeleteHistoryGrade;
+	
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
 		
 	@BeforeEach
 	public void setupDatabase() {		
@@ -108,6 +131,51 @@ public class StudentAndGradeServiceTest {
 		
 	}
 	
+	@Test
+	public void studentCheckIsKeyOnly() {
+		
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		
+		statistics.clear();
+		
+		assertTrue(studentService.checkIfStudentIsNotNull(1));
+		assertFalse(studentService.checkIfStudentIsNotNull(0));
+		
+		assertEquals(2, statistics.getPrepareStatementCount(), "One key-only query per check");
+		assertEquals(0, statistics.getEntityLoadCount(), "No entity should be hydrated");
+		
+	}
+	
+	@Test
+	public void deleteStudentsUsesOneStatementPerTable() {
+		
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (2,'Chad', 'Darby', 'chad.darby@luv2code_school.com')");
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (3,'Student', 'Three', 'student.three@luv2code_school.com')");
+		
+		for(int id = 2; id <= 200; id++) {
+			jdbc.update("insert into math_grade(id,student_id,grade) values (?,?,?)", id, 1 + id % 3, 90.00);
+		}
+		
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		
+		statistics.clear();
+		
+		assertEquals(2, studentService.deleteStudents(List.of(1, 2, 99)));
+		
+		assertEquals(6, statistics.getPrepareStatementCount(), "Lock, three grade tables, statistics and students");
+		
+		assertFalse(studentDao.existsById(1));
+		assertFalse(studentDao.existsById(2));
+		assertTrue(studentDao.existsById(3));
+		
+		assertEquals(0, jdbc.queryForObject("select count(*) from math_grade where student_id in (1, 2)", Integer.class));
+		assertEquals(67, jdbc.queryForObject("select count(*) from math_grade where student_id = 3", Integer.class));
+		assertEquals(0, jdbc.queryForObject("select count(*) from history_grade", Integer.class));
+		
+		assertEquals(0, studentService.deleteStudents(List.of(1, 2)));
+		
+	}
+	
 	@Test
 	public void deleteStudentService() {
 		
@@ -121,7 +189,8 @@ public class StudentAndGradeServiceTest {
 		assertTrue(deletedHistoryGrade.isPresent());
 		assertTrue(deletedScienceGrade.isPresent());
 		
-		studentService.deleteStudent(1);
+		assertTrue(studentService.deleteStudent(1));
+		assertFalse(studentService.deleteStudent(1), "Already deleted");
 		
 		deletedCollegeStudent = studentDao.findById(1);
 		deletedMathGrade = mathGradeDao.findById(1);
@@ -151,6 +220,45 @@ public class StudentAndGradeServiceTest {
 		
 	}
 	
+	@Sql("/insertData.sql")
+	@Test
+	public void getGradebookPageService() {
+		
+		StudentPage firstPage = studentService.getGradeBookPage(null, null, 2);
+		
+		assertEquals(List.of(1, 11), studentIds(firstPage));
+		assertFalse(firstPage.hasPrevious());
+		assertEquals(11, firstPage.getNextCursor());
+		
+		StudentPage secondPage = studentService.getGradeBookPage(firstPage.getNextCursor(), null, 2);
+		
+		assertEquals(List.of(12, 13), studentIds(secondPage));
+		assertEquals(12, secondPage.getPreviousCursor());
+		
+		StudentPage lastPage = studentService.getGradeBookPage(secondPage.getNextCursor(), null, 2);
+		
+		assertEquals(List.of(14), studentIds(lastPage));
+		assertFalse(lastPage.hasNext());
+		
+		StudentPage backToFirstPage = studentService.getGradeBookPage(null, secondPage.getPreviousCursor(), 2);
+		
+		assertEquals(List.of(1, 11), studentIds(backToFirstPage));
+		assertFalse(backToFirstPage.hasPrevious());
+		assertTrue(backToFirstPage.hasNext());
+		
+		assertEquals(500, studentService.getGradeBookPage(null, null, 100000).getSize(), 
+				"Page size is capped");
+		
+	}
+	
+	private List<Integer> studentIds(StudentPage page) {
+		List<Integer> ids = new ArrayList<>();
+		for(CollegeStudent student : page.getStudents()) {
+			ids.add(student.getId());
+		}
+		return ids;
+	}
+	
 	@Test
 	public void createGradeService() {
 		
@@ -186,6 +294,36 @@ public class StudentAndGradeServiceTest {
 		
 	}
 	
+	@Test
+	public void createGradeRejectionsAreCounted() {
+		
+		double outOfRange = rejections("grade_out_of_range");
+		double unknownStudent = rejections("unknown_student");
+		double unknownGradeType = rejections("unknown_grade_type");
+		long loaded = meterRegistry.get(GradebookMetrics.STUDENT_GRADES_LOADED).summary().count();
+		
+		assertFalse(studentService.createGrade(105, 1, "math"));
+		assertFalse(studentService.createGrade(-5, 1, "math"));
+		assertFalse(studentService.createGrade(80.50, 2, "math"));
+		assertFalse(studentService.createGrade(80.50, 1, "literature"));
+		
+		assertEquals(outOfRange + 2, rejections("grade_out_of_range"));
+		assertEquals(unknownStudent + 1, rejections("unknown_student"));
+		assertEquals(unknownGradeType + 1, rejections("unknown_grade_type"));
+		
+		studentService.studentInformation(1);
+		
+		assertEquals(loaded + 1, meterRegistry.get(GradebookMetrics.STUDENT_GRADES_LOADED).summary().count());
+		
+	}
+	
+	private double rejections(String reason) {
+		return meterRegistry.get(GradebookMetrics.GRADE_REJECTIONS)
+				.tag("reason", reason)
+				.tag("source", "form")
+				.counter().count();
+	}
+	
 	@Test
 	public void deleteGradeService() {
 		
@@ -232,6 +370,56 @@ public class StudentAndGradeServiceTest {
 		
 	}
 	
+	@Test
+	public void studentInformationGradeSnapshot() {
+
+		assertTrue(studentService.createGrade(80.50, 1, "math"));
+
+		GradebookCollegeStudent first = studentService.studentInformation(1);
+		GradebookCollegeStudent second = studentService.studentInformation(1);
+
+		assertNotSame(first.getStudentGrades(), second.getStudentGrades(),
+				"Each call builds its own grades holder");
+
+		StudentGradeSnapshot gradeSnapshot = first.getGradeSnapshot();
+
+		assertEquals(2, gradeSnapshot.getMathGrades().size());
+		assertEquals(1, gradeSnapshot.getScienceGrades().size());
+		assertEquals(1, gradeSnapshot.getHistoryGrades().size());
+
+		assertEquals(100.00, gradeSnapshot.getMathGrades().getGrade(0));
+		assertEquals(180.50, gradeSnapshot.getMathGrades().getSum());
+		assertEquals(90.25, gradeSnapshot.getMathGrades().getAverage());
+
+	}
+
+	@Test
+	public void studentAveragesFromDatabaseAggregates() {
+		
+		assertTrue(studentService.createGrade(80.50, 1, "math"));
+		assertTrue(studentService.createGrade(70.00, 1, "math"));
+		
+		Map<String, GradeAggregateRow> aggregates = new HashMap<>();
+		studentDao.findGradeAggregatesByStudentId(1)
+				.forEach(aggregate -> aggregates.put(aggregate.getGradeType(), aggregate));
+		
+		assertEquals(3, aggregates.get("math").getGradeCount());
+		assertEquals(70.00, aggregates.get("math").getMinimum());
+		assertEquals(100.00, aggregates.get("math").getMaximum());
+		assertEquals(1, aggregates.get("science").getGradeCount());
+		
+		jdbc.execute(sqlDeleteHistoryGrade);
+		
+		Model model = new ExtendedModelMap();
+		
+		studentService.configureStudentAveragesModel(1, model);
+		
+		assertEquals(83.5, model.getAttribute("mathAverage"));
+		assertEquals(100.0, model.getAttribute("scienceAverage"));
+		assertEquals("N/A", model.getAttribute("historyAverage"));
+		
+	}
+	
 	@Test
 	public void studentInformationServiceReturnNull() {
 		
@@ -247,6 +435,7 @@ public class StudentAndGradeServiceTest {
 		jdbc.execute(sqlDeleteMathGrade);
 		jdbc.execute(sqlDeleteScienceGrade);
 		jdbc.execute(sqlDeleteHistoryGrade);				
+		jdbc.execute(sqlDeleteGradeStatistics);
 	}
 	
 }
@@ -0,0 +1,161 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.github.leonardomvs.springmvc.models.GradebookCollegeStudent;
+import io.github.leonardomvs.springmvc.service.StudentAndGradeService;
+import io.github.leonardomvs.springmvc.service.StudentInformationCache;
+
+@TestPropertySource(locations = "/application-test.properties", properties = "spring.cache.type=caffeine")
+@SpringBootTest
+public class StudentInformationCacheTest {
+
+	@Autowired
+	JdbcTemplate jdbc;
+
+	@Autowired
+	StudentAndGradeService studentService;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Value("${sql.script.create.student}")
+	private String sqlAddStudent;
+
+	@Value("${sql.script.create.math.grade}")
+	private String sqlAddMathGrade;
+
+	@Value("${sql.script.delete.student}")
+	private String sqlDeleteStudent;
+
+	@Value("${sql.script.delete.math.grade}")
+	private String sqlDeleteMathGrade;
+
+	@Value("${sql.script.delete.science.grade}")
+	private String sqlDeleteScienceGrade;
+
+	@Value("${sql.script.delete.history.grade}")
+	private String sqlDeleteHistoryGrade;
+
+	@Value("${sql.script.delete.grade.statistics}")
+	private String sqlDeleteGradeStatistics;
+
+	@BeforeEach
+	public void setupDatabase() {
+		jdbc.execute(sqlAddStudent);
+		jdbc.execute(sqlAddMathGrade);
+		jdbc.execute("insert into student(id,firstname,lastname,email_address) values (2,'Chad', 'Darby', 'chad.darby@luv2code_school.com')");
+	}
+
+	@Test
+	public void repeatedStudentInformationIsServedFromCache() {
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		CacheStats before = studentInformationCache().stats();
+
+		statistics.clear();
+
+		GradebookCollegeStudent first = studentService.studentInformation(1);
+		GradebookCollegeStudent second = studentService.studentInformation(1);
+
+		assertNotSame(first, second, "Every read gets a student of its own");
+		assertEquals(first.getGradeSnapshot().getMathGrades().getId(0), second.getGradeSnapshot().getMathGrades().getId(0));
+		assertEquals(1, statistics.getPrepareStatementCount(), "Only the first lookup reaches the database");
+
+		CacheStats after = studentInformationCache().stats();
+
+		assertEquals(1, after.missCount() - before.missCount());
+		assertEquals(1, after.hitCount() - before.hitCount());
+
+	}
+
+	@Test
+	public void changesToAReturnedStudentDoNotReachTheCache() {
+
+		GradebookCollegeStudent first = studentService.studentInformation(1);
+
+		first.setFirstname("Changed");
+		first.setVersion(99);
+		first.getStudentGrades().getMathGradeResults().get(0).setGrade(0.00);
+
+		GradebookCollegeStudent second = studentService.studentInformation(1);
+
+		assertEquals("Eric", second.getFirstname());
+		assertNotEquals(99, second.getVersion());
+		assertEquals(100.00, second.getStudentGrades().getMathGradeResults().get(0).getGrade());
+
+	}
+
+	@Test
+	public void createGradeEvictsOnlyThatStudent() {
+
+		studentService.studentInformation(1);
+		studentService.studentInformation(2);
+
+		assertTrue(studentService.createGrade(80.00, 1, "math"));
+
+		assertNull(studentInformationCache().getIfPresent(1));
+		assertNotNull(studentInformationCache().getIfPresent(2));
+
+		assertEquals(2, studentService.studentInformation(1).getGradeSnapshot().getMathGrades().size());
+
+	}
+
+	@Test
+	public void deleteGradeAndStudentEvict() {
+
+		assertEquals(1, studentService.studentInformation(1).getGradeSnapshot().getMathGrades().size());
+
+		assertEquals(1, studentService.deleteGrade(1, "math"));
+
+		assertNull(studentInformationCache().getIfPresent(1));
+		assertEquals(0, studentService.studentInformation(1).getGradeSnapshot().getMathGrades().size());
+
+		studentService.deleteStudent(1);
+
+		assertNull(studentService.studentInformation(1));
+
+	}
+
+	private Cache<Object, Object> studentInformationCache() {
+		return ((CaffeineCache) cacheManager.getCache(StudentInformationCache.STUDENT_INFORMATION)).getNativeCache();
+	}
+
+	@AfterEach
+	public void setupAfterTransaction() {
+		jdbc.execute(sqlDeleteStudent);
+		jdbc.execute(sqlDeleteMathGrade);
+		jdbc.execute(sqlDeleteScienceGrade);
+		jdbc.execute(sqlDeleteHistoryGrade);
+		jdbc.execute(sqlDeleteGradeStatistics);
+		cacheManager.getCache(StudentInformationCache.STUDENT_INFORMATION).clear();
+		cacheManager.getCache(StudentInformationCache.STUDENT_AVERAGES).clear();
+	}
+
+}
@@ -0,0 +1,34 @@
+package io.github.leonardomvs.springmvc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadsTest {
+
+	@Test
+	public void tasksRunOnVirtualThreadsWhenSupported() throws Exception {
+
+		assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+
+		if(!VirtualThreads.isSupported()) {
+			assertThrows(IllegalStateException.class, VirtualThreads::newVirtualThreadPerTaskExecutor);
+			return;
+		}
+
+		ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+
+		try {
+			assertTrue(executor.submit(() -> VirtualThreads.isVirtual(Thread.currentThread())).get(10, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdown();
+		}
+
+	}
+
+}